@@ -0,0 +1,92 @@
+package no.kantega.id.api;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Base class for benchmarks of a country's validity, gender and birthday functions. Every invocation applies a
+ * function to all tokens of a {@link Corpus} such that the reported score is the throughput per token. Run the
+ * benchmarks with the GC profiler ({@code gradle jmh}) to also see the allocation rate per token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class AbstractIdNumberBenchmark {
+
+    @Param({"VALID", "INVALID", "MIXED"})
+    public Corpus.Kind kind;
+
+    private final Predicate<IdNumber> valid;
+
+    protected IdNumber[] ids;
+
+    protected AbstractIdNumberBenchmark(Predicate<IdNumber> valid) {
+        this.valid = valid;
+    }
+
+    @Setup
+    public void setUp() {
+        ids = corpus().select(kind);
+    }
+
+    /**
+     * Creates the corpus of tokens for this benchmark.
+     *
+     * @return The corpus to benchmark.
+     */
+    protected abstract Corpus corpus();
+
+    @Benchmark
+    @OperationsPerInvocation(Corpus.SIZE)
+    public void valid(Blackhole blackhole) {
+        for (IdNumber id : ids) {
+            blackhole.consume(id.isValid(valid));
+        }
+    }
+
+    /**
+     * Applies a gender function to all tokens. Subclasses expose this as a benchmark if their country defines
+     * a gender.
+     *
+     * @param blackhole The blackhole consuming the results.
+     * @param gender    The gender function to benchmark.
+     */
+    protected void gender(Blackhole blackhole, Function<IdNumber, Optional<Gender>> gender) {
+        for (IdNumber id : ids) {
+            blackhole.consume(id.gender(gender));
+        }
+    }
+
+    /**
+     * Applies a birthday function to all tokens. Subclasses expose this as a benchmark if their country defines
+     * a birthday.
+     *
+     * @param blackhole The blackhole consuming the results.
+     * @param birthday  The birthday function to benchmark.
+     */
+    protected void birthday(Blackhole blackhole, Function<IdNumber, Optional<LocalDate>> birthday) {
+        for (IdNumber id : ids) {
+            blackhole.consume(id.birthday(birthday));
+        }
+    }
+}
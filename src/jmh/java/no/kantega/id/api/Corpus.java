@@ -0,0 +1,186 @@
+package no.kantega.id.api;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.UnaryOperator;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+/**
+ * A fixed size corpus of ID tokens for benchmarking. The corpus is built from the token files of the test
+ * resources, which are added to the benchmark class path, and from variants of the valid tokens with a broken
+ * checksum, a non-existing date or a malformed layout.
+ */
+public final class Corpus {
+
+    /**
+     * The number of tokens in every corpus. Benchmarks iterate the full corpus for every invocation.
+     */
+    public static final int SIZE = 1024;
+
+    /**
+     * Describes the selection of tokens that make up a corpus.
+     */
+    public enum Kind {
+
+        /**
+         * Only tokens that are valid.
+         */
+        VALID,
+
+        /**
+         * Only tokens that are invalid, i.e. have a bad checksum, a bad date or a malformed layout.
+         */
+        INVALID,
+
+        /**
+         * A mix where every other token is valid.
+         */
+        MIXED
+    }
+
+    private static final long SEED = 42L;
+
+    private final List<String> valid = new ArrayList<>();
+
+    private final List<String> invalid = new ArrayList<>();
+
+    /**
+     * Adds all tokens of a resource which are known to be valid.
+     *
+     * @param resource The resource of valid tokens, one token per line.
+     * @return This corpus.
+     */
+    public Corpus valid(String resource) {
+        valid.addAll(read(resource));
+        return this;
+    }
+
+    /**
+     * Adds all tokens of a resource which are known to be invalid.
+     *
+     * @param resource The resource of invalid tokens, one token per line.
+     * @return This corpus.
+     */
+    public Corpus invalid(String resource) {
+        invalid.addAll(read(resource));
+        return this;
+    }
+
+    /**
+     * Derives invalid tokens from all valid tokens of this corpus. Mutations returning {@code null} are skipped.
+     *
+     * @param mutation A mutation of a valid token into an invalid token.
+     * @return This corpus.
+     */
+    public Corpus mutate(UnaryOperator<String> mutation) {
+        for (String token : valid) {
+            String mutated = mutation.apply(token);
+            if (mutated != null && !isBlank(mutated)) {
+                invalid.add(mutated);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Creates a random but reproducible selection of {@link #SIZE} ID numbers. The ID numbers are plain {@link IdNumber}s such
+     * that country specific implementations cannot reuse any state between invocations.
+     *
+     * @param kind The kind of tokens to select.
+     * @return An array of ID numbers of length {@link #SIZE}.
+     */
+    public IdNumber[] select(Kind kind) {
+        Random random = new Random(SEED);
+        IdNumber[] ids = new IdNumber[SIZE];
+        for (int i = 0; i < ids.length; i++) {
+            List<String> source;
+            switch (kind) {
+                case VALID:
+                    source = valid;
+                    break;
+                case INVALID:
+                    source = invalid;
+                    break;
+                default:
+                    source = i % 2 == 0 ? valid : invalid;
+            }
+            if (source.isEmpty()) {
+                throw new IllegalStateException("No tokens for corpus of kind " + kind);
+            }
+            ids[i] = IdNumber.forId(source.get(random.nextInt(source.size())));
+        }
+        return ids;
+    }
+
+    /**
+     * Replaces a character of a token by the next character of the same kind, i.e. a digit by the next digit
+     * and a letter by the next letter.
+     *
+     * @param token The token to change.
+     * @param index The index of the character to replace.
+     * @return The changed token.
+     */
+    public static String increment(String token, int index) {
+        char c = token.charAt(index);
+        char next;
+        if (c >= '0' && c <= '9') {
+            next = (char) ('0' + (c - '0' + 1) % 10);
+        } else if (c >= 'A' && c <= 'Z') {
+            next = (char) ('A' + (c - 'A' + 1) % 26);
+        } else {
+            next = c;
+        }
+        return replace(token, index, String.valueOf(next));
+    }
+
+    /**
+     * Replaces a part of a token.
+     *
+     * @param token       The token to change.
+     * @param index       The index of the first character to replace.
+     * @param replacement The replacement.
+     * @return The changed token.
+     */
+    public static String replace(String token, int index, String replacement) {
+        return token.substring(0, index) + replacement + token.substring(index + replacement.length());
+    }
+
+    /**
+     * Creates a malformed version of a token, alternating between a letter inserted in the middle of the token
+     * and a truncated token.
+     *
+     * @param token The token to change.
+     * @return The malformed token.
+     */
+    public static String malformed(String token) {
+        return (token.hashCode() & 1) == 0
+            ? replace(token, token.length() / 2, "x")
+            : token.substring(0, token.length() - 1);
+    }
+
+    private static List<String> read(String resource) {
+        InputStream in = Corpus.class.getResourceAsStream(resource);
+        if (in == null) {
+            throw new IllegalArgumentException("Unknown resource " + resource);
+        }
+        List<String> tokens = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!isBlank(line)) {
+                    tokens.add(line);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read " + resource, e);
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,57 @@
+package no.kantega.id.dk;
+
+import no.kantega.id.api.AbstractIdNumberBenchmark;
+import no.kantega.id.api.Corpus;
+import no.kantega.id.api.IdNumber;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.infra.Blackhole;
+
+import static no.kantega.id.api.Corpus.replace;
+
+public class DanishIdNumberBenchmark extends AbstractIdNumberBenchmark {
+
+    public DanishIdNumberBenchmark() {
+        super(DanishIdNumber::valid);
+    }
+
+    @Override
+    protected Corpus corpus() {
+        return new Corpus()
+            .valid("/dk/female1800.txt")
+            .valid("/dk/female1800modulus11.txt")
+            .valid("/dk/female1900.txt")
+            .valid("/dk/female1900modulus11.txt")
+            .valid("/dk/female2000.txt")
+            .valid("/dk/female2000modulus11.txt")
+            .valid("/dk/male1800.txt")
+            .valid("/dk/male1800modulus11.txt")
+            .valid("/dk/male1900.txt")
+            .valid("/dk/male1900modulus11.txt")
+            .valid("/dk/male2000.txt")
+            .valid("/dk/male2000modulus11.txt")
+            .invalid("/dk/invalid_numbers.txt")
+            .mutate(token -> replace(token, 2, "13"))
+            .mutate(Corpus::malformed);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Corpus.SIZE)
+    public void gender(Blackhole blackhole) {
+        gender(blackhole, DanishIdNumber::gender);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Corpus.SIZE)
+    public void birthday(Blackhole blackhole) {
+        birthday(blackhole, DanishIdNumber::birthday);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Corpus.SIZE)
+    public void validateModulus11(Blackhole blackhole) {
+        for (IdNumber id : ids) {
+            blackhole.consume(id.isValid(DanishIdNumber::validateModulus11));
+        }
+    }
+}
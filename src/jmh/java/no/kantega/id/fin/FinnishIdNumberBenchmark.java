@@ -0,0 +1,39 @@
+package no.kantega.id.fin;
+
+import no.kantega.id.api.AbstractIdNumberBenchmark;
+import no.kantega.id.api.Corpus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.infra.Blackhole;
+
+import static no.kantega.id.api.Corpus.increment;
+import static no.kantega.id.api.Corpus.replace;
+
+public class FinnishIdNumberBenchmark extends AbstractIdNumberBenchmark {
+
+    public FinnishIdNumberBenchmark() {
+        super(FinnishIdNumber::valid);
+    }
+
+    @Override
+    protected Corpus corpus() {
+        return new Corpus()
+            .valid("/fi/generated_valid_numbers.txt")
+            .invalid("/fi/invalid_numbers.txt")
+            .mutate(token -> increment(token, 10))
+            .mutate(token -> replace(token, 2, "13"))
+            .mutate(Corpus::malformed);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Corpus.SIZE)
+    public void gender(Blackhole blackhole) {
+        gender(blackhole, FinnishIdNumber::gender);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Corpus.SIZE)
+    public void birthday(Blackhole blackhole) {
+        birthday(blackhole, FinnishIdNumber::birthday);
+    }
+}
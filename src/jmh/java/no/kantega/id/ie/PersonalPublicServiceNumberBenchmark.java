@@ -0,0 +1,22 @@
+package no.kantega.id.ie;
+
+import no.kantega.id.api.AbstractIdNumberBenchmark;
+import no.kantega.id.api.Corpus;
+
+import static no.kantega.id.api.Corpus.increment;
+
+public class PersonalPublicServiceNumberBenchmark extends AbstractIdNumberBenchmark {
+
+    public PersonalPublicServiceNumberBenchmark() {
+        super(PersonalPublicServiceNumber::valid);
+    }
+
+    @Override
+    protected Corpus corpus() {
+        return new Corpus()
+            .valid("/ie/generated_valid_numbers.txt")
+            .invalid("/ie/invalid_numbers.txt")
+            .mutate(token -> increment(token, 7))
+            .mutate(Corpus::malformed);
+    }
+}
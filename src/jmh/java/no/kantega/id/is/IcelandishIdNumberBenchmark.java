@@ -0,0 +1,33 @@
+package no.kantega.id.is;
+
+import no.kantega.id.api.AbstractIdNumberBenchmark;
+import no.kantega.id.api.Corpus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.infra.Blackhole;
+
+import static no.kantega.id.api.Corpus.increment;
+import static no.kantega.id.api.Corpus.replace;
+
+public class IcelandishIdNumberBenchmark extends AbstractIdNumberBenchmark {
+
+    public IcelandishIdNumberBenchmark() {
+        super(IcelandishIdNumber::valid);
+    }
+
+    @Override
+    protected Corpus corpus() {
+        return new Corpus()
+            .valid("/is/valid_is_numbers.txt")
+            .invalid("/is/invalid_is_numbers.txt")
+            .mutate(token -> increment(token, token.length() - 2))
+            .mutate(token -> replace(token, 2, "13"))
+            .mutate(Corpus::malformed);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Corpus.SIZE)
+    public void birthday(Blackhole blackhole) {
+        birthday(blackhole, IcelandishIdNumber::birthday);
+    }
+}
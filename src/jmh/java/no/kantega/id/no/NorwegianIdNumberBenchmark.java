@@ -0,0 +1,52 @@
+package no.kantega.id.no;
+
+import no.kantega.id.api.AbstractIdNumberBenchmark;
+import no.kantega.id.api.Corpus;
+import no.kantega.id.api.IdNumber;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.infra.Blackhole;
+
+import static no.kantega.id.api.Corpus.increment;
+import static no.kantega.id.api.Corpus.replace;
+
+public class NorwegianIdNumberBenchmark extends AbstractIdNumberBenchmark {
+
+    public NorwegianIdNumberBenchmark() {
+        super(NorwegianIdNumber::valid);
+    }
+
+    @Override
+    protected Corpus corpus() {
+        return new Corpus()
+            .valid("/no/female1800.txt")
+            .valid("/no/female1900.txt")
+            .valid("/no/female2000.txt")
+            .valid("/no/male1800.txt")
+            .valid("/no/male1900.txt")
+            .valid("/no/male2000.txt")
+            .mutate(token -> increment(token, 10))
+            .mutate(token -> replace(token, 2, "13"))
+            .mutate(Corpus::malformed);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Corpus.SIZE)
+    public void gender(Blackhole blackhole) {
+        gender(blackhole, NorwegianIdNumber::gender);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Corpus.SIZE)
+    public void birthday(Blackhole blackhole) {
+        birthday(blackhole, NorwegianIdNumber::birthday);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Corpus.SIZE)
+    public void type(Blackhole blackhole) {
+        for (IdNumber id : ids) {
+            blackhole.consume(NorwegianIdNumber.type(id));
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package no.kantega.id.se;
+
+import no.kantega.id.api.AbstractIdNumberBenchmark;
+import no.kantega.id.api.Corpus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.infra.Blackhole;
+
+import static no.kantega.id.api.Corpus.increment;
+import static no.kantega.id.api.Corpus.replace;
+
+public class SwedishIdNumberBenchmark extends AbstractIdNumberBenchmark {
+
+    public SwedishIdNumberBenchmark() {
+        super(SwedishIdNumber::valid);
+    }
+
+    @Override
+    protected Corpus corpus() {
+        return new Corpus()
+            .valid("/se/valid_numbers.txt")
+            .invalid("/se/invalid_numbers.txt")
+            .mutate(token -> increment(token, token.length() - 1))
+            .mutate(token -> replace(token, token.length() == 12 ? 4 : 2, "13"))
+            .mutate(Corpus::malformed);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Corpus.SIZE)
+    public void gender(Blackhole blackhole) {
+        gender(blackhole, SwedishIdNumber::gender);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Corpus.SIZE)
+    public void birthday(Blackhole blackhole) {
+        birthday(blackhole, SwedishIdNumber::birthday);
+    }
+}
@@ -0,0 +1,237 @@
+package no.kantega.id.api;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Calendar arithmetic on primitive dates of the ISO calendar. Other than {@link java.time.LocalDate#of(int, int, int)},
+ * these methods neither create objects nor throw exceptions for dates that do not exist.
+ * <p>
+ * Dates of the years {@value #FIRST_SHARED_YEAR} to {@value #LAST_SHARED_YEAR}, which cover the birthdays of all
+ * supported ID numbers, are converted by {@link #toEpochDay(int, int, int)} with a lookup table of the first epoch
+ * day and leap flag of every year. They are additionally available as shared instances of {@link LocalDate} and
+ * {@link Optional} such that reading the birthday of an ID number does not create objects.
+ */
+public final class Dates {
+
+    /**
+     * The first year of the shared dates.
+     */
+    public static final int FIRST_SHARED_YEAR = 1800;
+
+    /**
+     * The last year of the shared dates.
+     */
+    public static final int LAST_SHARED_YEAR = 2099;
+
+    /**
+     * The result of {@link #toEpochDay(int, int, int)} for a date that does not exist, equal to
+     * {@link ParseResult#NO_BIRTHDAY}.
+     */
+    public static final int NO_DATE = Integer.MIN_VALUE;
+
+    private static final int DAYS_0000_TO_1970 = 719528;
+
+    /**
+     * The first epoch day of every shared year shifted left by one bit, with the lowest bit set for leap years.
+     */
+    private static final int[] YEARS = new int[LAST_SHARED_YEAR - FIRST_SHARED_YEAR + 1];
+
+    /**
+     * The number of days of every month, indexed by the leap flag shifted left by four bits plus the month.
+     */
+    private static final byte[] MONTH_LENGTHS = new byte[32];
+
+    /**
+     * The number of days of a year before every month, indexed like {@link #MONTH_LENGTHS}.
+     */
+    private static final short[] DAYS_BEFORE_MONTH = new short[32];
+
+    static {
+        for (int i = 0; i < YEARS.length; i++) {
+            int year = FIRST_SHARED_YEAR + i;
+            YEARS[i] = epochDay(year, 1, 1) << 1 | (isLeapYear(year) ? 1 : 0);
+        }
+        for (int leap = 0; leap < 2; leap++) {
+            int days = 0;
+            for (int month = 1; month <= 12; month++) {
+                int length = lengthOfMonth(leap == 1 ? 2000 : 2001, month);
+                MONTH_LENGTHS[leap << 4 | month] = (byte) length;
+                DAYS_BEFORE_MONTH[leap << 4 | month] = (short) days;
+                days += length;
+            }
+        }
+    }
+
+    private Dates() {
+    }
+
+    /**
+     * Checks if a year is a leap year.
+     *
+     * @param year The year to check.
+     * @return {@code true} if the year is a leap year.
+     */
+    public static boolean isLeapYear(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    /**
+     * Returns the number of days of a month.
+     *
+     * @param year  The year of the month.
+     * @param month The month of the year, from 1 to 12.
+     * @return The number of days of the month, or {@code 0} if the month does not exist.
+     */
+    public static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return isLeapYear(year) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            case 1:
+            case 3:
+            case 5:
+            case 7:
+            case 8:
+            case 10:
+            case 12:
+                return 31;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Checks if a date exists.
+     *
+     * @param year  The year of the date.
+     * @param month The month of the date.
+     * @param day   The day of month of the date.
+     * @return {@code true} if the date exists.
+     */
+    public static boolean isValid(int year, int month, int day) {
+        return day >= 1 && day <= lengthOfMonth(year, month);
+    }
+
+    /**
+     * Computes the epoch day of a date, equal to {@link java.time.LocalDate#toEpochDay()}. The date must exist.
+     *
+     * @param year  The year of the date.
+     * @param month The month of the date.
+     * @param day   The day of month of the date.
+     * @return The number of days since 1970-01-01.
+     */
+    public static int epochDay(int year, int month, int day) {
+        int total = 365 * year;
+        if (year >= 0) {
+            total += (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+        } else {
+            total -= year / -4 - year / -100 + year / -400;
+        }
+        total += (367 * month - 362) / 12;
+        total += day - 1;
+        if (month > 2) {
+            total--;
+            if (!isLeapYear(year)) {
+                total--;
+            }
+        }
+        return total - DAYS_0000_TO_1970;
+    }
+
+    /**
+     * Computes the year of an epoch day, equal to the year of {@link LocalDate#ofEpochDay(long)}.
+     *
+     * @param epochDay The number of days since 1970-01-01.
+     * @return The year of the epoch day.
+     */
+    public static int year(int epochDay) {
+        int year = (int) Math.floorDiv((epochDay + (long) DAYS_0000_TO_1970) * 400, 146097);
+        if (epochDay(year, 1, 1) > epochDay) {
+            year--;
+        } else if (epochDay(year + 1, 1, 1) <= epochDay) {
+            year++;
+        }
+        return year;
+    }
+
+    /**
+     * Checks a date and computes its epoch day in one step. Dates of the shared years are looked up in a table,
+     * other dates are computed like {@link #isValid(int, int, int)} and {@link #epochDay(int, int, int)}.
+     *
+     * @param year  The year of the date.
+     * @param month The month of the date.
+     * @param day   The day of month of the date.
+     * @return The number of days since 1970-01-01, or {@link #NO_DATE} if the date does not exist.
+     */
+    public static int toEpochDay(int year, int month, int day) {
+        int index = year - FIRST_SHARED_YEAR;
+        if (index < 0 || index >= YEARS.length || month < 1 || month > 12) {
+            return isValid(year, month, day) ? epochDay(year, month, day) : NO_DATE;
+        }
+        int entry = YEARS[index], row = (entry & 1) << 4 | month;
+        if (day < 1 || day > MONTH_LENGTHS[row]) {
+            return NO_DATE;
+        }
+        return (entry >> 1) + DAYS_BEFORE_MONTH[row] + day - 1;
+    }
+
+    /**
+     * Returns the date of an epoch day. Dates of the shared years are created once and then shared by all callers,
+     * other dates are created on every call.
+     *
+     * @param epochDay The number of days since 1970-01-01.
+     * @return The date of the epoch day.
+     */
+    public static LocalDate localDate(int epochDay) {
+        int index = epochDay - Shared.FIRST_DAY;
+        if (index < 0 || index >= Shared.DATES.length) {
+            return LocalDate.ofEpochDay(epochDay);
+        }
+        LocalDate date = Shared.DATES[index];
+        if (date == null) {
+            date = LocalDate.ofEpochDay(epochDay);
+            Shared.DATES[index] = date;
+        }
+        return date;
+    }
+
+    /**
+     * Returns the date of an epoch day as a present optional, which is shared like the dates of
+     * {@link #localDate(int)}.
+     *
+     * @param epochDay The number of days since 1970-01-01.
+     * @return The date of the epoch day.
+     */
+    public static Optional<LocalDate> optionalDate(int epochDay) {
+        int index = epochDay - Shared.FIRST_DAY;
+        if (index < 0 || index >= Shared.OPTIONAL_DATES.length) {
+            return Optional.of(LocalDate.ofEpochDay(epochDay));
+        }
+        Optional<LocalDate> date = Shared.OPTIONAL_DATES[index];
+        if (date == null) {
+            date = Optional.of(localDate(epochDay));
+            Shared.OPTIONAL_DATES[index] = date;
+        }
+        return date;
+    }
+
+    /**
+     * The tables of the shared dates, which are filled on demand. Both {@link LocalDate} and {@link Optional} are
+     * immutable with final fields such that a racy fill at most creates a date twice but never exposes a partially
+     * constructed date.
+     */
+    private static final class Shared {
+
+        static final int FIRST_DAY = epochDay(FIRST_SHARED_YEAR, 1, 1);
+
+        static final LocalDate[] DATES = new LocalDate[epochDay(LAST_SHARED_YEAR + 1, 1, 1) - FIRST_DAY];
+
+        @SuppressWarnings("unchecked")
+        static final Optional<LocalDate>[] OPTIONAL_DATES = (Optional<LocalDate>[]) new Optional<?>[DATES.length];
+    }
+}
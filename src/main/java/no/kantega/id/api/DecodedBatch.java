@@ -0,0 +1,176 @@
+package no.kantega.id.api;
+
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Columns of primitive arrays for the decoded parse results of a batch of tokens. The element at index {@code i}
+ * of each column describes the {@code i}-th token of the last decoded batch such that decoding a batch does not
+ * create any objects per token. The columns are:
+ * <ol>
+ * <li>The status code as defined by {@link ParseResult}.</li>
+ * <li>The ordinal of the {@link Gender}, which is the ordinal of {@link Gender#UNKNOWN} if no gender is
+ * represented.</li>
+ * <li>The birthday as epoch day, or {@link ParseResult#NO_BIRTHDAY} if no birthday is represented.</li>
+ * <li>The country specific detail, for example the ordinal of the type of a Norwegian ID number. The detail of a
+ * token with status {@link ParseResult#BAD_FORMAT} is {@code 0} and has no meaning, it must not be read as the
+ * first type of a country.</li>
+ * </ol>
+ * A column can be omitted by passing {@code null} to {@link #DecodedBatch(byte[], byte[], int[], byte[])}.
+ * Tokens are decoded as is, i.e. without the cleanup applied when creating an {@link IdNumber}.
+ * <p>
+ * Instances are not thread-safe but can be reused for any number of batches.
+ */
+public final class DecodedBatch {
+
+    private final byte[] status;
+
+    private final byte[] gender;
+
+    private final int[] birthday;
+
+    private final byte[] detail;
+
+    private final int capacity;
+
+    private int size;
+
+    /**
+     * Creates columns for batches of up to a given number of tokens.
+     *
+     * @param capacity The maximum number of tokens of a batch.
+     */
+    public DecodedBatch(final int capacity) {
+        this(new byte[capacity], new byte[capacity], new int[capacity], new byte[capacity]);
+    }
+
+    /**
+     * Creates columns that are backed by caller-supplied arrays. The capacity is the length of the shortest
+     * column.
+     *
+     * @param status   The status codes, or {@code null} if not required.
+     * @param gender   The gender ordinals, or {@code null} if not required.
+     * @param birthday The birthdays as epoch days, or {@code null} if not required.
+     * @param detail   The country specific details, or {@code null} if not required.
+     */
+    public DecodedBatch(final byte[] status, final byte[] gender, final int[] birthday, final byte[] detail) {
+        this.status = status;
+        this.gender = gender;
+        this.birthday = birthday;
+        this.detail = detail;
+        int capacity = Integer.MAX_VALUE;
+        capacity = status == null ? capacity : Math.min(capacity, status.length);
+        capacity = gender == null ? capacity : Math.min(capacity, gender.length);
+        capacity = birthday == null ? capacity : Math.min(capacity, birthday.length);
+        capacity = detail == null ? capacity : Math.min(capacity, detail.length);
+        this.capacity = capacity;
+    }
+
+    /**
+     * Decodes a batch of tokens, replacing the previous batch.
+     *
+     * @param tokens The tokens to decode.
+     * @param parser The parse function of a country, for example {@code NorwegianIdNumber::parse}.
+     * @return These columns.
+     * @throws IllegalArgumentException if the batch exceeds the capacity of the columns.
+     */
+    public DecodedBatch decode(final CharSequence[] tokens, final ToLongFunction<CharSequence> parser) {
+        reset(tokens.length);
+        for (int i = 0; i < tokens.length; i++) {
+            put(i, parser.applyAsLong(tokens[i]));
+        }
+        return this;
+    }
+
+    /**
+     * Decodes a batch of tokens, replacing the previous batch.
+     *
+     * @param tokens The tokens to decode.
+     * @param parser The parse function of a country, for example {@code NorwegianIdNumber::parse}.
+     * @return These columns.
+     * @throws IllegalArgumentException if the batch exceeds the capacity of the columns.
+     */
+    public DecodedBatch decode(final List<? extends CharSequence> tokens, final ToLongFunction<CharSequence> parser) {
+        reset(tokens.size());
+        for (int i = 0; i < size; i++) {
+            put(i, parser.applyAsLong(tokens.get(i)));
+        }
+        return this;
+    }
+
+    private void reset(final int size) {
+        if (size > capacity) {
+            throw new IllegalArgumentException("Batch of " + size + " tokens exceeds capacity of " + capacity);
+        }
+        this.size = size;
+    }
+
+    private void put(final int index, final long result) {
+        if (status != null) {
+            status[index] = ParseResult.status(result);
+        }
+        if (gender != null) {
+            gender[index] = (byte) ParseResult.gender(result).ordinal();
+        }
+        if (birthday != null) {
+            birthday[index] = ParseResult.birthday(result);
+        }
+        if (detail != null) {
+            detail[index] = (byte) ParseResult.detail(result);
+        }
+    }
+
+    /**
+     * Returns the number of tokens of the last decoded batch.
+     *
+     * @return The number of decoded tokens.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the maximum number of tokens of a batch.
+     *
+     * @return The capacity of these columns.
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the column of status codes.
+     *
+     * @return The status codes, or {@code null} if omitted.
+     */
+    public byte[] status() {
+        return status;
+    }
+
+    /**
+     * Returns the column of gender ordinals.
+     *
+     * @return The gender ordinals, or {@code null} if omitted.
+     */
+    public byte[] gender() {
+        return gender;
+    }
+
+    /**
+     * Returns the column of birthdays.
+     *
+     * @return The birthdays as epoch days, or {@code null} if omitted.
+     */
+    public int[] birthday() {
+        return birthday;
+    }
+
+    /**
+     * Returns the column of country specific details, which have no meaning for malformed tokens.
+     *
+     * @return The details, or {@code null} if omitted.
+     */
+    public byte[] detail() {
+        return detail;
+    }
+}
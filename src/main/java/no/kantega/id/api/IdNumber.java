@@ -16,8 +16,12 @@ import static org.apache.commons.lang3.StringUtils.isBlank;
 /**
  * Base class for implementations of an ID number. This class is not capable of understanding the meaning of any
  * ID number but serves as a dispatcher for implementations of a country's ID number.
+ * <p>
+ * ID numbers are equal if they are of the same class and have the same token. Implementations of
+ * {@link LocalIdNumber} refine this to canonical equality within their scheme. ID numbers are ordered by their
+ * numeric encoding, if any, and otherwise by their class and token.
  */
-public class IdNumber {
+public class IdNumber implements Comparable<IdNumber> {
 
     /**
      * The ID number token for this instance.
@@ -160,4 +164,36 @@ public class IdNumber {
     protected String cleanup(String idNumber) {
         return StringUtils.trim(idNumber);
     }
+
+    /**
+     * Returns the numeric encoding of this ID number, or {@code 0} if it is not encoded.
+     */
+    long encoded() {
+        return 0L;
+    }
+
+    @Override
+    public int compareTo(final IdNumber other) {
+        final long key = encoded(), otherKey = other.encoded();
+        int order = key != 0 && otherKey != 0
+            ? Long.compareUnsigned(key, otherKey)
+            : Boolean.compare(key == 0, otherKey == 0);
+        if (order == 0) {
+            order = getClass().getName().compareTo(other.getClass().getName());
+        }
+        if (order == 0 && key == 0) {
+            order = idToken.compareTo(other.idToken);
+        }
+        return order;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        return this == o || o != null && o.getClass() == getClass() && idToken.equals(((IdNumber) o).idToken);
+    }
+
+    @Override
+    public int hashCode() {
+        return idToken.hashCode();
+    }
 }
@@ -4,9 +4,24 @@ import java.util.Locale;
 
 /**
  * Base class for ID numbers supporting locale.
+ * <p>
+ * Implementations can {@link #encode() encode} their ID numbers as numbers that are equal for all spellings of an
+ * ID number, such as for a Swedish number with ten or twelve digits. ID numbers with an encoding are equal if their
+ * encodings are equal, and are hashed and ordered by their encoding, which is computed once per instance. An
+ * encoding that depends on the current date, such as that of a Swedish number with ten digits, is therefore fixed
+ * by the date at which it is first needed.
  */
 public abstract class LocalIdNumber extends IdNumber {
 
+    /**
+     * The complement of the memoized encoding of this ID, or {@code 0} until the token is encoded. As the encoding
+     * decides {@link #equals(Object)} and {@link #hashCode()}, the field is volatile so that no thread reads a torn
+     * value, and its default marks the missing encoding even where this ID was published without synchronization.
+     * Threads that race to encode the token compute and store the same value. An encoding of {@code -1} is not
+     * memoized and is computed on every use.
+     */
+    private volatile long encoded;
+
     protected LocalIdNumber(final String idToken, Locale locale) {
         super(idToken);
         if (!supports(locale)) {
@@ -24,4 +39,43 @@ public abstract class LocalIdNumber extends IdNumber {
      * @return true if locale is supported, false otherwise.
      */
     protected abstract boolean supports(Locale locale);
+
+    /**
+     * Encodes this ID number as a number that is equal for all spellings of the ID number within its scheme, for
+     * example its {@code no.kantega.id.scheme.CompactId}. Implementations should override this method, by default
+     * ID numbers are not encoded and are compared by their token.
+     *
+     * @return The encoding, or {@code 0} if the token cannot be encoded.
+     */
+    protected long encode() {
+        return 0L;
+    }
+
+    @Override
+    final long encoded() {
+        long e = ~encoded;
+        if (e == -1L) {
+            e = encode();
+            encoded = ~e;
+        }
+        return e;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        } else if (o == null || o.getClass() != getClass()) {
+            return false;
+        }
+        final LocalIdNumber other = (LocalIdNumber) o;
+        final long key = encoded();
+        return key != 0 ? key == other.encoded() : other.encoded() == 0 && idToken.equals(other.idToken);
+    }
+
+    @Override
+    public int hashCode() {
+        final long key = encoded();
+        return key != 0 ? Long.hashCode(key) : idToken.hashCode();
+    }
 }
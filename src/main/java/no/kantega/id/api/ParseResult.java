@@ -0,0 +1,205 @@
+package no.kantega.id.api;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Utility for the result of parsing an ID token. A parse result is a primitive {@code long} such that parsing
+ * never needs to create objects or throw exceptions, also not for malformed input. A result consists of:
+ * <ol>
+ * <li>A status code, one of {@link #OK}, {@link #BAD_FORMAT}, {@link #BAD_DATE} or {@link #BAD_CHECKSUM}.</li>
+ * <li>The gender as represented by the token, or {@link Gender#UNKNOWN} if the token does not represent a gender.</li>
+ * <li>The birthday as epoch day, or {@link #NO_BIRTHDAY} if the token does not represent a birthday.</li>
+ * <li>A country specific detail, for example the type of a Norwegian ID number, which is {@code 0} and has no
+ * meaning if the token does not have the layout of an ID number.</li>
+ * </ol>
+ * Results that are not {@link #OK} can still carry a gender or a birthday if these could be read from the token,
+ * for example a token with a bad checksum.
+ */
+public final class ParseResult {
+
+    /**
+     * Status of a valid token.
+     */
+    public static final byte OK = 0;
+
+    /**
+     * Status of a token that does not have the layout of an ID number, for example because of its length or
+     * because of a letter in place of a digit.
+     */
+    public static final byte BAD_FORMAT = 1;
+
+    /**
+     * Status of a well-formed token that does not represent an existing date.
+     */
+    public static final byte BAD_DATE = 2;
+
+    /**
+     * Status of a well-formed token with an existing date but with a checksum that does not match.
+     */
+    public static final byte BAD_CHECKSUM = 3;
+
+    /**
+     * The epoch day of a result that does not represent a birthday.
+     */
+    public static final int NO_BIRTHDAY = Integer.MIN_VALUE;
+
+    /**
+     * The result of a token that does not have the layout of an ID number.
+     */
+    public static final long MALFORMED = of(BAD_FORMAT, Gender.UNKNOWN, NO_BIRTHDAY, 0);
+
+    private static final String[] STATUS_NAMES = {"OK", "BAD_FORMAT", "BAD_DATE", "BAD_CHECKSUM"};
+
+    private static final Gender[] GENDERS = Gender.values();
+
+    private static final List<Optional<Gender>> OPTIONAL_GENDERS = Arrays.stream(GENDERS)
+        .map(gender -> gender == Gender.UNKNOWN ? Optional.<Gender>empty() : Optional.of(gender))
+        .collect(Collectors.toList());
+
+    private static final int GENDER_SHIFT = 8, DETAIL_SHIFT = 16, BIRTHDAY_SHIFT = 32;
+
+    private ParseResult() {
+    }
+
+    /**
+     * Creates a parse result.
+     *
+     * @param status   The status code.
+     * @param gender   The gender, or {@link Gender#UNKNOWN} if no gender is represented.
+     * @param birthday The birthday as epoch day, or {@link #NO_BIRTHDAY} if no birthday is represented.
+     * @param detail   A country specific detail in the range of 0 to 65535.
+     * @return The parse result.
+     */
+    public static long of(byte status, Gender gender, int birthday, int detail) {
+        return (status & 0xFFL)
+               | (long) gender.ordinal() << GENDER_SHIFT
+               | (detail & 0xFFFFL) << DETAIL_SHIFT
+               | (long) birthday << BIRTHDAY_SHIFT;
+    }
+
+    /**
+     * Replaces the status code of a parse result.
+     *
+     * @param result The parse result.
+     * @param status The new status code.
+     * @return A parse result with the given status code.
+     */
+    public static long withStatus(long result, byte status) {
+        return result & ~0xFFL | status & 0xFFL;
+    }
+
+    /**
+     * Returns the status code of a parse result.
+     *
+     * @param result The parse result.
+     * @return The status code.
+     */
+    public static byte status(long result) {
+        return (byte) result;
+    }
+
+    /**
+     * Checks if a parse result represents a valid token.
+     *
+     * @param result The parse result.
+     * @return {@code true} if the status code is {@link #OK}.
+     */
+    public static boolean isValid(long result) {
+        return status(result) == OK;
+    }
+
+    /**
+     * Returns the gender of a parse result.
+     *
+     * @param result The parse result.
+     * @return The gender, or {@link Gender#UNKNOWN} if no gender is represented.
+     */
+    public static Gender gender(long result) {
+        return GENDERS[genderCode(result)];
+    }
+
+    /**
+     * Returns the gender of a parse result as a primitive code, which is the ordinal of the {@link Gender} such that
+     * genders can be counted or compared without looking up the enum constant.
+     *
+     * @param result The parse result.
+     * @return The ordinal of the gender, which is the ordinal of {@link Gender#UNKNOWN} if no gender is represented.
+     */
+    public static byte genderCode(long result) {
+        return (byte) (result >>> GENDER_SHIFT);
+    }
+
+    /**
+     * Returns the birthday of a parse result.
+     *
+     * @param result The parse result.
+     * @return The birthday as epoch day, or {@link #NO_BIRTHDAY} if no birthday is represented.
+     */
+    public static int birthday(long result) {
+        return (int) (result >> BIRTHDAY_SHIFT);
+    }
+
+    /**
+     * Returns the country specific detail of a parse result.
+     *
+     * @param result The parse result.
+     * @return The detail of the result.
+     */
+    public static int detail(long result) {
+        return (int) (result >>> DETAIL_SHIFT) & 0xFFFF;
+    }
+
+    /**
+     * Returns the gender of a parse result.
+     *
+     * @param result The parse result.
+     * @return The gender, if represented.
+     */
+    public static Optional<Gender> optionalGender(long result) {
+        return optionalGenderOf(gender(result));
+    }
+
+    /**
+     * Returns a gender as a shared optional.
+     *
+     * @param gender The gender.
+     * @return The gender, or empty if it is {@link Gender#UNKNOWN}.
+     */
+    public static Optional<Gender> optionalGenderOf(Gender gender) {
+        return OPTIONAL_GENDERS.get(gender.ordinal());
+    }
+
+    /**
+     * Returns the birthday of a parse result.
+     *
+     * @param result The parse result.
+     * @return The birthday, if represented.
+     */
+    public static Optional<LocalDate> optionalBirthday(long result) {
+        return optionalBirthdayOf(birthday(result));
+    }
+
+    /**
+     * Returns a birthday as a shared optional, see {@link Dates#optionalDate(int)}.
+     *
+     * @param birthday The birthday as epoch day, or {@link #NO_BIRTHDAY}.
+     * @return The birthday, if represented.
+     */
+    public static Optional<LocalDate> optionalBirthdayOf(int birthday) {
+        return birthday == NO_BIRTHDAY ? Optional.empty() : Dates.optionalDate(birthday);
+    }
+
+    /**
+     * Returns a readable name of a status code.
+     *
+     * @param status The status code.
+     * @return The name of the status code.
+     */
+    public static String name(byte status) {
+        return status >= 0 && status < STATUS_NAMES.length ? STATUS_NAMES[status] : "UNKNOWN(" + status + ")";
+    }
+}
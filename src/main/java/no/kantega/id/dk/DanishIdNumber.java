@@ -1,17 +1,19 @@
 package no.kantega.id.dk;
 
+import no.kantega.id.api.Dates;
+import no.kantega.id.api.DecodedBatch;
 import no.kantega.id.api.Gender;
 import no.kantega.id.api.IdNumber;
 import no.kantega.id.api.LocalIdNumber;
+import no.kantega.id.api.ParseResult;
+import no.kantega.id.scheme.CompactId;
+import no.kantega.id.scheme.Scheme;
 
-import java.time.DateTimeException;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
 
-import static java.lang.Character.getNumericValue;
-import static java.lang.Integer.parseInt;
-import static java.util.Optional.empty;
 import static no.kantega.id.api.Gender.FEMALE;
 import static no.kantega.id.api.Gender.MALE;
 
@@ -31,7 +33,22 @@ public class DanishIdNumber extends LocalIdNumber {
 
     private static final int CONTROL_MODULO = 11;
 
-    private static final String VALID_FORMAT_PATTERN = "\\d{10}";
+    private static final int LENGTH = 10;
+
+    private static final int[] MODULUS_WEIGHTS = {4, 3, 2, 7, 6, 5, 4, 3, 2, 1};
+
+    /**
+     * The bit of a {@link ParseResult}'s detail that is set if a token passes the modulus 11 test.
+     */
+    public static final int MODULUS_11 = 0x10;
+
+    /**
+     * The complement of the memoized result of parsing this ID's token, shared by the lenient and the strict mode.
+     * The field is volatile such that a read cannot see half of a result, and it holds the complement such that its
+     * default value {@code 0} marks a token that was not parsed yet, also for a thread that sees this ID through an
+     * unsafe publication. A racy initialization at worst parses the token more than once.
+     */
+    private volatile long decoded;
 
     public DanishIdNumber(String idToken, Locale locale) {
         super(idToken, locale);
@@ -82,7 +99,7 @@ public class DanishIdNumber extends LocalIdNumber {
      * @return true when valid id number, based on a given specification for Denmark.
      */
     public static boolean valid(final IdNumber idNumber) {
-        return birthday(idNumber).isPresent();
+        return ParseResult.isValid(decode(idNumber));
     }
 
     /**
@@ -105,22 +122,151 @@ public class DanishIdNumber extends LocalIdNumber {
      * @return true when valid id number, based on a given specification for Denmark.
      */
     public static boolean validateModulus11(final IdNumber idNumber) {
-        if (!validateFormat(idNumber)) {
-            return false;
+        return ParseResult.isValid(modulus11(decode(idNumber)));
+    }
+
+    /**
+     * Decodes a batch of tokens into columns of primitive arrays without creating any objects per token.
+     * The status codes do not reflect the modulus 11 test, see {@link #parse(CharSequence)}.
+     *
+     * @param tokens The tokens to decode.
+     * @param into   The columns to fill.
+     * @return The filled columns.
+     */
+    public static DecodedBatch decode(CharSequence[] tokens, DecodedBatch into) {
+        return into.decode(tokens, DanishIdNumber::parse);
+    }
+
+    /**
+     * Decodes a batch of tokens into columns of primitive arrays without creating any objects per token.
+     * The status codes do not reflect the modulus 11 test, see {@link #parse(CharSequence)}.
+     *
+     * @param tokens The tokens to decode.
+     * @param into   The columns to fill.
+     * @return The filled columns.
+     */
+    public static DecodedBatch decode(List<? extends CharSequence> tokens, DecodedBatch into) {
+        return into.decode(tokens, DanishIdNumber::parse);
+    }
+
+    /**
+     * Determines the status of a given ID without throwing exceptions. The status does not reflect the
+     * modulus 11 test, see {@link #valid(IdNumber)}.
+     *
+     * @param idNumber The ID to be examined.
+     * @return The status code of the given ID, as defined by {@link ParseResult}.
+     */
+    public static byte status(final IdNumber idNumber) {
+        return ParseResult.status(decode(idNumber));
+    }
+
+    /**
+     * Parses a token without creating any objects or throwing exceptions. The modulus 11 test is not part of
+     * the status of the result, see {@link #valid(IdNumber)}, but the detail of the result has the
+     * {@link #MODULUS_11} bit set if the token passes the test. The lower bits of the detail contain the
+     * century digit. The digits are scanned once such that the result can be checked in the strict mode by
+     * {@link #modulus11(long)} without parsing the token again.
+     *
+     * @param token The token to parse.
+     * @return The parse result as described by {@link ParseResult}.
+     */
+    public static long parse(CharSequence token) {
+        if (token.length() != LENGTH) {
+            return ParseResult.MALFORMED;
         }
 
-        int controlSum =
-            4 * getNumericValue(idNumber.getIdToken().charAt(0)) +
-            3 * getNumericValue(idNumber.getIdToken().charAt(1)) +
-            2 * getNumericValue(idNumber.getIdToken().charAt(2)) +
-            7 * getNumericValue(idNumber.getIdToken().charAt(3)) +
-            6 * getNumericValue(idNumber.getIdToken().charAt(4)) +
-            5 * getNumericValue(idNumber.getIdToken().charAt(5)) +
-            4 * getNumericValue(idNumber.getIdToken().charAt(6)) +
-            3 * getNumericValue(idNumber.getIdToken().charAt(7)) +
-            2 * getNumericValue(idNumber.getIdToken().charAt(8)) +
-            getNumericValue(idNumber.getIdToken().charAt(9));
-        return controlSum % CONTROL_MODULO == 0;
+        int day = 0, month = 0, shortYear = 0, centuryDigit = 0, genderDigit = 0, controlSum = 0;
+        for (int i = 0; i < LENGTH; i++) {
+            int digit = token.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return ParseResult.MALFORMED;
+            }
+            if (i < 2) {
+                day = 10 * day + digit;
+            } else if (i < 4) {
+                month = 10 * month + digit;
+            } else if (i < 6) {
+                shortYear = 10 * shortYear + digit;
+            } else if (i == 6) {
+                centuryDigit = digit;
+            } else if (i == GENDER_BIT) {
+                genderDigit = digit;
+            }
+            controlSum += MODULUS_WEIGHTS[i] * digit;
+        }
+
+        int year = calculateYear(shortYear, centuryDigit);
+        Gender gender = (genderDigit & 1) == 0 ? FEMALE : MALE;
+        int detail = centuryDigit | (controlSum % CONTROL_MODULO == 0 ? MODULUS_11 : 0);
+
+        int birthday = Dates.toEpochDay(year, month, day);
+        if (birthday == Dates.NO_DATE) {
+            return ParseResult.of(ParseResult.BAD_DATE, gender, ParseResult.NO_BIRTHDAY, detail);
+        }
+        return ParseResult.of(ParseResult.OK, gender, birthday, detail);
+    }
+
+    /**
+     * Parses a token like {@link #parse(CharSequence)} but reports {@link ParseResult#BAD_CHECKSUM} for a
+     * token that does not pass the modulus 11 test.
+     *
+     * @param token The token to parse.
+     * @return The parse result as described by {@link ParseResult}.
+     */
+    public static long parseModulus11(CharSequence token) {
+        return modulus11(parse(token));
+    }
+
+    /**
+     * Applies the modulus 11 test to a result of {@link #parse(CharSequence)}, reporting
+     * {@link ParseResult#BAD_CHECKSUM} for a valid token that does not pass the test.
+     *
+     * @param result A result of {@link #parse(CharSequence)}.
+     * @return The parse result with the status of the strict mode.
+     */
+    public static long modulus11(long result) {
+        if (ParseResult.isValid(result) && !passesModulus11(result)) {
+            return ParseResult.withStatus(result, ParseResult.BAD_CHECKSUM);
+        }
+        return result;
+    }
+
+    /**
+     * Checks if a result of {@link #parse(CharSequence)} passes the modulus 11 test, regardless of its status.
+     *
+     * @param result A result of {@link #parse(CharSequence)}.
+     * @return {@code true} if the {@link #MODULUS_11} bit of the detail is set.
+     */
+    public static boolean passesModulus11(long result) {
+        return (ParseResult.detail(result) & MODULUS_11) != 0;
+    }
+
+    /**
+     * Returns the century digit, i.e. the seventh digit, of a result of {@link #parse(CharSequence)}.
+     *
+     * @param result A result of {@link #parse(CharSequence)}.
+     * @return The century digit from 0 to 9.
+     */
+    public static int centuryDigit(long result) {
+        return ParseResult.detail(result) & ~MODULUS_11;
+    }
+
+    /**
+     * Decodes the given ID, reusing the memoized result of a Danish ID number instance.
+     */
+    private static long decode(IdNumber idNumber) {
+        return idNumber instanceof DanishIdNumber
+            ? ((DanishIdNumber) idNumber).decoded()
+            : parse(idNumber.getIdToken());
+    }
+
+    private long decoded() {
+        long decoded = ~this.decoded;
+        if (decoded == -1L) {
+            decoded = parse(idToken);
+            this.decoded = ~decoded;
+        }
+        return decoded;
     }
 
     /**
@@ -133,12 +279,7 @@ public class DanishIdNumber extends LocalIdNumber {
      * @return Optional gender (male or female), or empty in case of non-digit gender bit.
      */
     public static Optional<Gender> gender(final IdNumber idNumber) {
-        if (!validateFormat(idNumber)) {
-            return empty();
-        }
-        return (getNumericValue(idNumber.getIdToken().charAt(GENDER_BIT)) & 1) == 0
-            ? Optional.of(FEMALE)
-            : Optional.of(MALE);
+        return ParseResult.optionalGender(decode(idNumber));
     }
 
     /**
@@ -149,23 +290,27 @@ public class DanishIdNumber extends LocalIdNumber {
      * @return optional birthday, or empty in case of invalid date or invalid idNumber format.
      */
     public static Optional<LocalDate> birthday(final IdNumber idNumber) {
-        if (!validateFormat(idNumber)) {
-            return empty();
-        }
-
-        int day= parseInt(idNumber.getIdToken().substring(0, 2));
-        int month= parseInt(idNumber.getIdToken().substring(2, 4));
-        int shortYear= parseInt(idNumber.getIdToken().substring(4, 6));
-        int year = calculateYear(shortYear, getNumericValue(idNumber.getIdToken().charAt(6)));
+        return ParseResult.optionalBirthday(decode(idNumber));
+    }
 
-        LocalDate parsedDate;
-        try {
-            parsedDate = LocalDate.of(year, month, day);
-        } catch (DateTimeException e) {
-            return empty();
-        }
+    /**
+     * Extracts the birthday of a token without creating any objects, for example to filter or sort many IDs.
+     *
+     * @param token The token to examine.
+     * @return The birthday as epoch day like {@link #birthday(IdNumber)}, or {@link ParseResult#NO_BIRTHDAY} if not retrievable.
+     */
+    public static int birthdayEpochDay(final CharSequence token) {
+        return ParseResult.birthday(parse(token));
+    }
 
-        return Optional.of(parsedDate);
+    /**
+     * Extracts the gender of a token without creating any objects.
+     *
+     * @param token The token to examine.
+     * @return The ordinal of the {@link Gender} like {@link #gender(IdNumber)}, see {@link ParseResult#genderCode(long)}.
+     */
+    public static byte genderCode(final CharSequence token) {
+        return ParseResult.genderCode(parse(token));
     }
 
     private static int calculateYear(int shortYear, int yearCenturyPart) {
@@ -188,8 +333,14 @@ public class DanishIdNumber extends LocalIdNumber {
         return century + shortYear;
     }
 
-    private static boolean validateFormat(final IdNumber number) {
-        return number.getIdToken().matches(VALID_FORMAT_PATTERN);
+    /**
+     * Encodes this ID as its {@link CompactId}.
+     *
+     * @return The compact encoding of this ID, or {@link CompactId#NONE} if the token is malformed.
+     */
+    @Override
+    protected long encode() {
+        return CompactId.encode(Scheme.DENMARK, idToken);
     }
 
     @Override
@@ -1,21 +1,21 @@
 package no.kantega.id.fin;
 
+import no.kantega.id.api.Dates;
+import no.kantega.id.api.DecodedBatch;
 import no.kantega.id.api.Gender;
 import no.kantega.id.api.IdNumber;
 import no.kantega.id.api.LocalIdNumber;
+import no.kantega.id.api.ParseResult;
+import no.kantega.id.scheme.CompactId;
+import no.kantega.id.scheme.Scheme;
 
 import java.lang.IllegalArgumentException;
-import java.time.DateTimeException;
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
-import static java.lang.Character.isDigit;
-import static java.lang.Integer.parseInt;
-import static java.util.Optional.empty;
-import static java.util.regex.Pattern.compile;
 import static no.kantega.id.api.Gender.FEMALE;
 import static no.kantega.id.api.Gender.MALE;
 
@@ -36,20 +36,37 @@ public class FinnishIdNumber extends LocalIdNumber {
         'M', 'N', 'P', 'R', 'S', 'T', 'U', 'V', 'W', 'X', 'Z'
     };
 
-    private static final Pattern IDNUMBER_PATTERN =
-        compile("([0-3][0-9])([0-1][0-9])([0-9]{2})(\\-|[A]|\\+)([0-9]{3})([0-9]|[A-Z])");
-
-    private static final int DAY = 1;
-
-    private static final int MONTH = 2;
+    /**
+     * The century of each separator character, or {@code 0} if a character is not a separator. Besides the
+     * traditional separators {@code +}, {@code -} and {@code A}, the separators introduced in 2023 are
+     * {@code Y}, {@code X}, {@code W}, {@code V} and {@code U} for the 1900s and {@code B} to {@code F} for
+     * the 2000s.
+     */
+    private static final short[] CENTURIES = new short[256];
 
-    private static final int YEAR = 3;
+    /**
+     * The value of each control character, i.e. its index in {@link #CONTROL_CHARS}, or {@code -1} if a
+     * character is not a control character.
+     */
+    private static final byte[] CONTROL_VALUES = new byte[256];
 
-    private static final int SEPARATOR = 4;
+    static {
+        CENTURIES['+'] = 1800;
+        for (char separator : "-YXWVU".toCharArray()) {
+            CENTURIES[separator] = 1900;
+        }
+        for (char separator : "ABCDEF".toCharArray()) {
+            CENTURIES[separator] = 2000;
+        }
+        Arrays.fill(CONTROL_VALUES, (byte) -1);
+        for (int i = 0; i < CONTROL_CHARS.length; i++) {
+            CONTROL_VALUES[CONTROL_CHARS[i]] = (byte) i;
+        }
+    }
 
-    private static final int CONTROL_NUMBER = 5;
+    private static final int LENGTH = 11;
 
-    private static final int CONTROL_CHAR = 6;
+    private static final int SEPARATOR = 6;
 
     private static final int DIVIDER = 31;
 
@@ -101,29 +118,121 @@ public class FinnishIdNumber extends LocalIdNumber {
      * @return Optional gender (male or female), or empty in case of non-digit gender bit.
      */
     public static Optional<Gender> gender(IdNumber idNumber) {
-        char genderBit = idNumber.getIdToken().charAt(GENDER_BIT);
-        if (isDigit(genderBit)) {
-            return genderBit % 2 == 0 ? Optional.of(FEMALE) : Optional.of(MALE);
-        }
-        return empty();
+        return ParseResult.optionalGender(parse(idNumber.getIdToken()));
     }
 
     /**
      * Standard implementation of validity check for Finnish idNumbers.
-     * Valid idnumber is expected to follow format: ddMMyy[-|+|A]DDDX
-     * where 6 first characters represent birthday, followed by +, -, or A
-     * representing century (1800, 1900 or 2000), followed by 3-digit running number
-     * and control character.
+     * Valid idnumber is expected to follow format: ddMMyyCDDDX
+     * where 6 first characters represent birthday, followed by a separator C
+     * representing century (+ for 1800, - or Y, X, W, V, U for 1900 and A to F for 2000),
+     * followed by 3-digit running number and control character.
      *
      * @param idNumber The idNumber to validate.
      * @return true when valid id number, based on a given specification for Finland.
      */
     public static boolean valid(final IdNumber idNumber) {
-        FinnishIdNumber finnishIdNumber = forId(idNumber.getIdToken());
-        Matcher format = IDNUMBER_PATTERN.matcher(finnishIdNumber.getIdToken());
-        return format.matches()
-               && finnishIdNumber.birthdayFor(format).isPresent()
-               && finnishIdNumber.hasValidControl(format);
+        return ParseResult.isValid(parse(idNumber.getIdToken()));
+    }
+
+    /**
+     * Decodes a batch of tokens into columns of primitive arrays without creating any objects per token.
+     *
+     * @param tokens The tokens to decode.
+     * @param into   The columns to fill.
+     * @return The filled columns.
+     */
+    public static DecodedBatch decode(CharSequence[] tokens, DecodedBatch into) {
+        return into.decode(tokens, FinnishIdNumber::parse);
+    }
+
+    /**
+     * Decodes a batch of tokens into columns of primitive arrays without creating any objects per token.
+     *
+     * @param tokens The tokens to decode.
+     * @param into   The columns to fill.
+     * @return The filled columns.
+     */
+    public static DecodedBatch decode(List<? extends CharSequence> tokens, DecodedBatch into) {
+        return into.decode(tokens, FinnishIdNumber::parse);
+    }
+
+    /**
+     * Determines the status of a given ID without throwing exceptions.
+     *
+     * @param idNumber The ID to be examined.
+     * @return The status code of the given ID, as defined by {@link ParseResult}.
+     */
+    public static byte status(final IdNumber idNumber) {
+        return ParseResult.status(parse(idNumber.getIdToken()));
+    }
+
+    /**
+     * Parses a token without creating any objects or throwing exceptions. The separator and the control
+     * character are resolved by lookup tables such that the token is scanned only once.
+     *
+     * @param token The token to parse.
+     * @return The parse result as described by {@link ParseResult}.
+     */
+    public static long parse(CharSequence token) {
+        if (token.length() != LENGTH) {
+            return ParseResult.MALFORMED;
+        }
+        char separator = token.charAt(SEPARATOR), control = token.charAt(LENGTH - 1);
+        int century = separator < CENTURIES.length ? CENTURIES[separator] : 0;
+        int controlValue = control < CONTROL_VALUES.length ? CONTROL_VALUES[control] : -1;
+        if (century == 0 || controlValue < 0) {
+            return ParseResult.MALFORMED;
+        }
+
+        int day = 0, month = 0, year = 0, serial = 0;
+        Gender gender = MALE;
+        for (int i = 0; i < LENGTH - 1; i++) {
+            if (i == SEPARATOR) {
+                continue;
+            }
+            int digit = token.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return ParseResult.MALFORMED;
+            }
+            if (i < 2) {
+                day = 10 * day + digit;
+            } else if (i < 4) {
+                month = 10 * month + digit;
+            } else if (i < SEPARATOR) {
+                year = 10 * year + digit;
+            } else {
+                serial = 10 * serial + digit;
+            }
+            if (i == GENDER_BIT && digit % 2 == 0) {
+                gender = FEMALE;
+            }
+        }
+
+        year += century;
+        int birthday = Dates.toEpochDay(year, month, day);
+        if (birthday == Dates.NO_DATE) {
+            return ParseResult.of(ParseResult.BAD_DATE, gender, ParseResult.NO_BIRTHDAY, 0);
+        }
+        int controlNumber = ((100 * day + month) * 100 + year % 100) * 1000 + serial;
+        byte status = controlNumber % DIVIDER == controlValue ? ParseResult.OK : ParseResult.BAD_CHECKSUM;
+        return ParseResult.of(status, gender, birthday, 0);
+    }
+
+    /**
+     * Sets the control character of a token from its digits, for example to create a valid number from a modified
+     * one.
+     *
+     * @param token The eleven characters of a token, of which the last one is replaced.
+     */
+    public static void fillControl(char[] token) {
+        int controlNumber = 0;
+        for (int i = 0; i < LENGTH - 1; i++) {
+            if (i != SEPARATOR) {
+                controlNumber = 10 * controlNumber + token[i] - '0';
+            }
+        }
+        token[LENGTH - 1] = CONTROL_CHARS[controlNumber % DIVIDER];
     }
 
     /**
@@ -134,39 +243,37 @@ public class FinnishIdNumber extends LocalIdNumber {
      * @return optional birthdate, or empty in case of invalid format.
      */
     public static Optional<LocalDate> birthday(final IdNumber idNumber) {
-        final Matcher format = IDNUMBER_PATTERN.matcher(idNumber.getIdToken());
-        if (format.matches()) {
-            return forId(idNumber.getIdToken()).birthdayFor(format);
-        }
-        return empty();
-
+        return ParseResult.optionalBirthday(parse(idNumber.getIdToken()));
     }
 
-    private boolean hasValidControl(Matcher idFormat) {
-        int controlNumber = parseInt(idFormat.group(DAY) + idFormat.group(MONTH) +
-                                     idFormat.group(YEAR) + idFormat.group(CONTROL_NUMBER));
-        return idFormat.group(CONTROL_CHAR).charAt(0) == CONTROL_CHARS[controlNumber % DIVIDER];
+    /**
+     * Extracts the birthday of a token without creating any objects, for example to filter or sort many IDs.
+     *
+     * @param token The token to examine.
+     * @return The birthday as epoch day like {@link #birthday(IdNumber)}, or {@link ParseResult#NO_BIRTHDAY} if not retrievable.
+     */
+    public static int birthdayEpochDay(final CharSequence token) {
+        return ParseResult.birthday(parse(token));
     }
 
-    private Optional<LocalDate> birthdayFor(Matcher format) {
-        try {
-            return Optional.of(
-                LocalDate.of(centuryFrom(format.group(SEPARATOR).charAt(0)) + parseInt(format.group(YEAR)),
-                    parseInt(format.group(MONTH)),
-                    parseInt(format.group(DAY))));
-        } catch (DateTimeException e) {
-            return Optional.empty();
-        }
+    /**
+     * Extracts the gender of a token without creating any objects.
+     *
+     * @param token The token to examine.
+     * @return The ordinal of the {@link Gender} like {@link #gender(IdNumber)}, see {@link ParseResult#genderCode(long)}.
+     */
+    public static byte genderCode(final CharSequence token) {
+        return ParseResult.genderCode(parse(token));
     }
 
-    private int centuryFrom(char separator) {
-        switch (separator) {
-            case '+':
-                return 1800;
-            case '-':
-                return 1900;
-        }
-        return 2000;
+    /**
+     * Encodes this ID as its {@link CompactId}.
+     *
+     * @return The compact encoding of this ID, or {@link CompactId#NONE} if the token is malformed.
+     */
+    @Override
+    protected long encode() {
+        return CompactId.encode(Scheme.FINLAND, idToken);
     }
 
     @Override
@@ -182,11 +289,13 @@ public class FinnishIdNumber extends LocalIdNumber {
      * @return true for persons born in Finland, otherwise false.
      */
     public boolean isFinnishBorn() {
-        final Matcher idFormat = IDNUMBER_PATTERN.matcher(getIdToken());
-        if(idFormat.matches()) {
-            int controlNumber = parseInt(idFormat.group(CONTROL_NUMBER));
-            return controlNumber >= LOWER_LIMIT_FINNISHBORN && controlNumber <= UPPER_LIMIT_FINNISH_BORN;
+        if (ParseResult.status(parse(idToken)) == ParseResult.BAD_FORMAT) {
+            return false;
+        }
+        int runningNumber = 0;
+        for (int i = SEPARATOR + 1; i < LENGTH - 1; i++) {
+            runningNumber = 10 * runningNumber + idToken.charAt(i) - '0';
         }
-        return false;
+        return runningNumber >= LOWER_LIMIT_FINNISHBORN && runningNumber <= UPPER_LIMIT_FINNISH_BORN;
     }
 }
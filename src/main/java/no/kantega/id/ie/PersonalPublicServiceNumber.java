@@ -1,15 +1,17 @@
 package no.kantega.id.ie;
 
+import no.kantega.id.api.DecodedBatch;
+import no.kantega.id.api.Gender;
 import no.kantega.id.api.IdNumber;
 import no.kantega.id.api.LocalIdNumber;
+import no.kantega.id.api.ParseResult;
+import no.kantega.id.scheme.CompactId;
+import no.kantega.id.scheme.Scheme;
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Locale;
-import java.util.Optional;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
-import static java.util.regex.Pattern.compile;
 
 /**
  * Representation of a <i>Personal Public Service Number (PPS No)</i> which is issued by a number of public services,
@@ -35,16 +37,39 @@ public class PersonalPublicServiceNumber extends LocalIdNumber {
         'L', 'M', 'N', 'O', 'P', 'Q', 'R', 'S', 'T', 'U', 'V'
     };
 
-    private static final Pattern IDNUMBER_PATTERN =
-        compile("([0-9]{7})([A-Z])([A-Z]?)");
-
     public static final String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
 
-    private static final int NUMBER_GROUP = 1;
+    private static final int DIGITS = 7;
+
+    private static final int[] WEIGHTS = {8, 7, 6, 5, 4, 3, 2};
 
-    private static final int CONTROL_CHAR_GROUP = 2;
+    private static final int SECOND_CHAR_WEIGHT = 9;
 
-    private static final int SECOND_CHAR_OPT_GROUP = 3;
+    private static final int DIVIDER = 23;
+
+    /**
+     * The value of each ASCII letter regardless of its case, i.e. {@code 1} for A to {@code 26} for Z, or
+     * {@code 0} if a character is not a letter.
+     */
+    private static final byte[] LETTER_VALUES = new byte[128];
+
+    /**
+     * The value of each ASCII letter as a control character regardless of its case, i.e. its index in
+     * {@link #CONTROL_CHARS}, or {@code -1} if a letter is not a control character.
+     */
+    private static final byte[] CONTROL_VALUES = new byte[128];
+
+    static {
+        Arrays.fill(CONTROL_VALUES, (byte) -1);
+        for (int i = 0; i < ALPHABET.length(); i++) {
+            char letter = ALPHABET.charAt(i);
+            LETTER_VALUES[letter] = LETTER_VALUES[Character.toLowerCase(letter)] = (byte) (i + 1);
+        }
+        for (int i = 0; i < CONTROL_CHARS.length; i++) {
+            char letter = CONTROL_CHARS[i];
+            CONTROL_VALUES[letter] = CONTROL_VALUES[Character.toLowerCase(letter)] = (byte) i;
+        }
+    }
 
     public PersonalPublicServiceNumber(final String idToken) {
         super(idToken, LOCALE_IE);
@@ -78,6 +103,16 @@ public class PersonalPublicServiceNumber extends LocalIdNumber {
         return new PersonalPublicServiceNumber(idToken, locale);
     }
 
+    /**
+     * Encodes this ID as its {@link CompactId}.
+     *
+     * @return The compact encoding of this ID, or {@link CompactId#NONE} if the token is malformed.
+     */
+    @Override
+    protected long encode() {
+        return CompactId.encode(Scheme.IRELAND, idToken);
+    }
+
     @Override
     protected boolean supports(Locale locale) {
         return locale != null && IRELAND.equals(locale.getCountry());
@@ -96,78 +131,139 @@ public class PersonalPublicServiceNumber extends LocalIdNumber {
     }
 
     /**
-     * Check for valid checksum.
+     * Checks the validity of this ID.
+     *
+     * @return {@code true} if this ID is valid by measures of the Norwegian ID definition.
      */
-    private boolean hasValidControl(Matcher idFormat) {
-        int[] weights = {8,7,6,5,4,3,2};
-        int sum = 0;
-
-        String digits = digits(idFormat);
-        for (int i = 0; i < digits.length(); i++) {
-            sum = sum + weights[i] * digitAt(digits, i);
-        }
-
-        // From Jan. 2013, the optional second character is also part of the checksum.
-        Optional<Character> c2 = secondChar(idFormat);
-        if (c2.isPresent()) {
-            sum = sum + 9 * controlIndex(c2.get());
-        }
+    public boolean isValid() {
+        return valid(this);
+    }
 
-        int ctrl = sum % 23;
-        char calculatedControl = CONTROL_CHARS[ctrl];
+    /**
+     * Standard implementation of validity check for Irish instances of IdNumber.
+     *
+     * Valid idnumber is expected to be formatted as seven digits, followed by one control
+     * character, and one optional character. If the second optional character is present, it must be 'W'.
+     *
+     * @param idNumber The idNumber to validate.
+     * @return true if idNumber is evaluated to be a valid Irish Personal Public Service Number.
+     */
+    public static boolean valid(final IdNumber idNumber) {
+        return ParseResult.isValid(parse(idNumber.getIdToken()));
+    }
 
-        return controlChar(idFormat) == calculatedControl;
+    /**
+     * Decodes a batch of tokens into columns of primitive arrays without creating any objects per token.
+     *
+     * @param tokens The tokens to decode.
+     * @param into   The columns to fill.
+     * @return The filled columns.
+     */
+    public static DecodedBatch decode(CharSequence[] tokens, DecodedBatch into) {
+        return into.decode(tokens, PersonalPublicServiceNumber::parse);
     }
 
-    private String digits(Matcher idFormat) {
-        return idFormat.group(NUMBER_GROUP);
+    /**
+     * Decodes a batch of tokens into columns of primitive arrays without creating any objects per token.
+     *
+     * @param tokens The tokens to decode.
+     * @param into   The columns to fill.
+     * @return The filled columns.
+     */
+    public static DecodedBatch decode(List<? extends CharSequence> tokens, DecodedBatch into) {
+        return into.decode(tokens, PersonalPublicServiceNumber::parse);
     }
 
-    private char controlChar(Matcher idFormat) {
-        return idFormat.group(CONTROL_CHAR_GROUP).charAt(0);
+    /**
+     * Determines the status of a given ID without throwing exceptions.
+     *
+     * @param idNumber The ID to be examined.
+     * @return The status code of the given ID, as defined by {@link ParseResult}.
+     */
+    public static byte status(final IdNumber idNumber) {
+        return ParseResult.status(parse(idNumber.getIdToken()));
     }
 
-    private Optional<Character> secondChar(Matcher idFormat) {
-        Optional<String> optionalChar = Optional.ofNullable(idFormat.group(SECOND_CHAR_OPT_GROUP));
-        if (!optionalChar.isPresent() || optionalChar.get().isEmpty()) {
-            return Optional.empty();
-        } else {
-            return Optional.of(optionalChar.get().charAt(0));
+    /**
+     * Parses a token without creating any objects or throwing exceptions. A PPS No. does neither represent a
+     * gender nor a birthday such that the result only carries a status code. Letters are read regardless of
+     * their case, as by {@link #cleanup(String)}, such that the token is scanned only once.
+     *
+     * @param token The token to parse.
+     * @return The parse result as described by {@link ParseResult}.
+     */
+    public static long parse(final CharSequence token) {
+        final int length = token.length();
+        if (length != DIGITS + 1 && length != DIGITS + 2) {
+            return ParseResult.MALFORMED;
+        }
+
+        int sum = 0;
+        for (int i = 0; i < DIGITS; i++) {
+            final int digit = token.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return ParseResult.MALFORMED;
+            }
+            sum += WEIGHTS[i] * digit;
+        }
+
+        final int control = letterValue(CONTROL_VALUES, token.charAt(DIGITS), -1);
+        if (control == -1 && letterValue(LETTER_VALUES, token.charAt(DIGITS), 0) == 0) {
+            return ParseResult.MALFORMED;
+        }
+
+        // From Jan. 2013, the optional second character is also part of the checksum.
+        if (length == DIGITS + 2) {
+            final int second = letterValue(LETTER_VALUES, token.charAt(DIGITS + 1), 0);
+            if (second == 0) {
+                return ParseResult.MALFORMED;
+            }
+            sum += SECOND_CHAR_WEIGHT * second;
         }
+
+        final byte status = sum % DIVIDER == control ? ParseResult.OK : ParseResult.BAD_CHECKSUM;
+        return ParseResult.of(status, Gender.UNKNOWN, ParseResult.NO_BIRTHDAY, 0);
     }
 
-    private int controlIndex(char character) {
-        // A = 1, B = 2, ...
-        return 1 + ALPHABET.indexOf(character);
+    /**
+     * Sets the check character of a token from its digits and its optional second letter, for example to create
+     * a valid number from a modified one. The check character keeps the case of the replaced character.
+     *
+     * @param token The characters of a token, of which the eighth one is replaced.
+     */
+    public static void fillControl(final char[] token) {
+        int sum = 0;
+        for (int i = 0; i < DIGITS; i++) {
+            sum += WEIGHTS[i] * (token[i] - '0');
+        }
+        if (token.length == DIGITS + 2) {
+            sum += SECOND_CHAR_WEIGHT * letterValue(LETTER_VALUES, token[DIGITS + 1], 0);
+        }
+        final char control = CONTROL_CHARS[sum % DIVIDER];
+        token[DIGITS] = Character.isLowerCase(token[DIGITS]) ? Character.toLowerCase(control) : control;
     }
 
-    private int digitAt(String number, int i) {
-        return Character.getNumericValue(number.charAt(i));
+    private static int letterValue(final byte[] values, final char c, final int absent) {
+        return c < values.length ? values[c] : absent;
     }
 
     /**
-     * Checks the validity of this ID.
+     * Extracts the birthday of a token without creating any objects. PPS numbers do not represent a birthday.
      *
-     * @return {@code true} if this ID is valid by measures of the Norwegian ID definition.
+     * @param token The token to examine.
+     * @return Always {@link ParseResult#NO_BIRTHDAY}.
      */
-    public boolean isValid() {
-        return valid(this);
+    public static int birthdayEpochDay(final CharSequence token) {
+        return ParseResult.NO_BIRTHDAY;
     }
 
     /**
-     * Standard implementation of validity check for Irish instances of IdNumber.
-     *
-     * Valid idnumber is expected to be formatted as seven digits, followed by one control
-     * character, and one optional character. If the second optional character is present, it must be 'W'.
+     * Extracts the gender of a token without creating any objects. PPS numbers do not represent a gender.
      *
-     * @param idNumber The idNumber to validate.
-     * @return true if idNumber is evaluated to be a valid Irish Personal Public Service Number.
+     * @param token The token to examine.
+     * @return Always the ordinal of {@link Gender#UNKNOWN}.
      */
-    public static boolean valid(final IdNumber idNumber) {
-        PersonalPublicServiceNumber ppsn = forId(idNumber.getIdToken());
-        Matcher format = IDNUMBER_PATTERN.matcher(ppsn.getIdToken());
-        return format.matches()
-               && ppsn.hasValidControl(format);
+    public static byte genderCode(final CharSequence token) {
+        return (byte) Gender.UNKNOWN.ordinal();
     }
-
 }
@@ -0,0 +1,62 @@
+package no.kantega.id.io;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A reusable view of a region of ASCII bytes as a {@link CharSequence}. The view is moved over a buffer such that
+ * tokens can be passed to the parse functions of the ID number classes without creating a {@link String} per token.
+ * Bytes outside of the ASCII range are read as their unsigned value and are therefore never mistaken for a digit
+ * or a letter.
+ * <p>
+ * Instances are not thread-safe.
+ */
+final class AsciiSequence implements CharSequence {
+
+    private ByteBuffer buffer;
+
+    private int offset;
+
+    private int length;
+
+    /**
+     * Moves this view to a region of a buffer.
+     *
+     * @param buffer The buffer to view.
+     * @param offset The absolute index of the first byte of the region.
+     * @param length The number of bytes of the region.
+     * @return This view.
+     */
+    AsciiSequence wrap(ByteBuffer buffer, int offset, int length) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+        return this;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index " + index + " is outside of sequence of length " + length);
+        }
+        return (char) (buffer.get(offset + index) & 0xFF);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return toString().substring(start, end);
+    }
+
+    @Override
+    public String toString() {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) (buffer.get(offset + i) & 0xFF);
+        }
+        return new String(chars);
+    }
+}
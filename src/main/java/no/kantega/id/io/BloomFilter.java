@@ -0,0 +1,211 @@
+package no.kantega.id.io;
+
+import no.kantega.id.scheme.CompactId;
+import no.kantega.id.scheme.Scheme;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A Bloom filter of ID numbers which is stored outside of the heap, either in a direct buffer or in a memory-mapped
+ * file. The filter answers if an ID was possibly added or definitely not added such that unknown IDs can be
+ * rejected before looking them up in an exact index like {@link MembershipIndex}. IDs are hashed by the numeric
+ * value of their canonical {@link CompactId} rather than by their token, such that all spellings of an ID, such as
+ * an Icelandic ID with or without hyphen, are the same ID.
+ * <p>
+ * A filter file consists of a header of {@value #HEADER_SIZE} bytes, containing a magic number, the format version,
+ * the number of hash functions and the number of bits, followed by the bits in words of 8 bytes. A filter that is
+ * opened from a file is read-only such that it can be shared by any number of processes.
+ * <p>
+ * Lookups are thread-safe, additions are not.
+ */
+public final class BloomFilter {
+
+    /**
+     * The size of the header of a filter file.
+     */
+    public static final int HEADER_SIZE = 24;
+
+    private static final int MAGIC = 0x4B49424C, VERSION = 1;
+
+    private static final long MAX_BITS = (long) (Integer.MAX_VALUE - HEADER_SIZE) / Long.BYTES * Long.SIZE;
+
+    private final ByteBuffer words;
+
+    private final long bits;
+
+    private final int hashes;
+
+    private BloomFilter(ByteBuffer words, long bits, int hashes) {
+        this.words = words;
+        this.bits = bits;
+        this.hashes = hashes;
+    }
+
+    /**
+     * Creates an empty filter in a direct buffer, sized for a number of IDs and a false positive probability.
+     *
+     * @param expectedIds              The number of IDs to be added.
+     * @param falsePositiveProbability The probability of a lookup of an ID that was not added to succeed once
+     *                                 the expected number of IDs was added, between 0 and 1.
+     * @return An empty filter.
+     */
+    public static BloomFilter create(long expectedIds, double falsePositiveProbability) {
+        if (expectedIds < 1) {
+            throw new IllegalArgumentException("Expected number of IDs must be positive: " + expectedIds);
+        }
+        if (!(falsePositiveProbability > 0 && falsePositiveProbability < 1)) {
+            throw new IllegalArgumentException("False positive probability out of range: " + falsePositiveProbability);
+        }
+        double bits = -expectedIds * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2));
+        if (bits > MAX_BITS) {
+            throw new IllegalArgumentException("Filter exceeds " + MAX_BITS + " bits");
+        }
+        long words = Math.max(1, ((long) Math.ceil(bits) + Long.SIZE - 1) / Long.SIZE);
+        int hashes = Math.max(1, (int) Math.round(bits / expectedIds * Math.log(2)));
+        return new BloomFilter(ByteBuffer.allocateDirect((int) (words * Long.BYTES)), words * Long.SIZE, hashes);
+    }
+
+    /**
+     * Opens a filter by memory-mapping its file.
+     *
+     * @param file The filter file.
+     * @return The read-only filter of the file.
+     * @throws IOException If the file cannot be read or is not a filter.
+     */
+    public static BloomFilter open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("Not a Bloom filter: " + file);
+            }
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Not a Bloom filter of version " + VERSION + ": " + file);
+            }
+            int hashes = buffer.getInt(8);
+            long bits = buffer.getLong(16);
+            if (hashes < 1 || bits < Long.SIZE || bits % Long.SIZE != 0
+                || bits / Long.SIZE * Long.BYTES != channel.size() - HEADER_SIZE) {
+                throw new IOException("Corrupt Bloom filter: " + file);
+            }
+            buffer.position(HEADER_SIZE);
+            return new BloomFilter(buffer.slice(), bits, hashes);
+        }
+    }
+
+    /**
+     * Saves this filter to a file.
+     *
+     * @param file The file to write, which is replaced if it exists.
+     * @throws IOException If the file cannot be written.
+     */
+    public void save(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putInt(hashes).putInt(0).putLong(bits).flip();
+            ByteBuffer data = words.duplicate();
+            data.clear();
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+        }
+    }
+
+    /**
+     * Adds the ID number of a token if it is valid.
+     *
+     * @param scheme The scheme of the token.
+     * @param token  The token to add.
+     * @return {@code true} if the token is a valid ID number and was added.
+     */
+    public boolean put(Scheme scheme, CharSequence token) {
+        long compact = CompactId.encode(scheme, token);
+        if (!CompactId.isValid(compact)) {
+            return false;
+        }
+        put(compact);
+        return true;
+    }
+
+    /**
+     * Adds an ID number.
+     *
+     * @param compact The ID number as encoded by {@link CompactId}.
+     * @throws java.nio.ReadOnlyBufferException if the filter was opened from a file.
+     */
+    public void put(long compact) {
+        long h1 = mix(CompactId.canonical(compact)), h2 = mix(h1) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bits);
+            int index = (int) (bit >>> 6) * Long.BYTES;
+            words.putLong(index, words.getLong(index) | 1L << bit);
+        }
+    }
+
+    /**
+     * Checks if the ID number of a token was possibly added.
+     *
+     * @param scheme The scheme of the token.
+     * @param token  The token to look up.
+     * @return {@code false} if the token is not a valid ID number or was definitely not added.
+     */
+    public boolean mightContain(Scheme scheme, CharSequence token) {
+        return mightContain(CompactId.encode(scheme, token));
+    }
+
+    /**
+     * Checks if an ID number was possibly added.
+     *
+     * @param compact The ID number as encoded by {@link CompactId}.
+     * @return {@code false} if the ID number is not valid or was definitely not added.
+     */
+    public boolean mightContain(long compact) {
+        if (!CompactId.isValid(compact)) {
+            return false;
+        }
+        long h1 = mix(CompactId.canonical(compact)), h2 = mix(h1) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bits);
+            if ((words.getLong((int) (bit >>> 6) * Long.BYTES) & 1L << bit) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of bits of this filter.
+     *
+     * @return The number of bits.
+     */
+    public long bitSize() {
+        return bits;
+    }
+
+    /**
+     * Returns the number of hash functions of this filter.
+     *
+     * @return The number of bits set per ID.
+     */
+    public int hashFunctions() {
+        return hashes;
+    }
+
+    /**
+     * The finalizer of MurmurHash3 which spreads every bit of the input over the output.
+     */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        return value ^ value >>> 33;
+    }
+}
@@ -0,0 +1,160 @@
+package no.kantega.id.io;
+
+import no.kantega.id.api.ParseResult;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.ToLongFunction;
+
+/**
+ * Validates files with one ASCII token per line, for example dumps of a registry. The file is memory-mapped and
+ * split into chunks at line boundaries which are validated in parallel by a {@link ForkJoinPool}. Tokens are read
+ * directly from the mapped buffer by the parse function of a country such that no objects are created per line.
+ * <p>
+ * Lines are separated by {@code \n}. Leading and trailing spaces, tabs and carriage returns of a line are ignored,
+ * and blank lines are skipped. Lines that are longer than {@value #MAX_LINE_LENGTH} bytes might be cut at a chunk
+ * boundary, but no ID token is of that length such that these lines are always invalid.
+ * <p>
+ * Instances are thread-safe.
+ */
+public final class MappedFileValidator {
+
+    /**
+     * The default size of a chunk of a file which is validated by a single task.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 16 * 1024 * 1024;
+
+    /**
+     * The number of bytes that are mapped beyond the end of a chunk to complete its last line.
+     */
+    public static final int MAX_LINE_LENGTH = 4096;
+
+    private final ToLongFunction<CharSequence> parser;
+
+    private final ForkJoinPool pool;
+
+    private final int chunkSize;
+
+    /**
+     * Creates a validator that runs in the common pool.
+     *
+     * @param parser The parse function of a country, for example {@code NorwegianIdNumber::parse}.
+     */
+    public MappedFileValidator(final ToLongFunction<CharSequence> parser) {
+        this(parser, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Creates a validator.
+     *
+     * @param parser    The parse function of a country, for example {@code NorwegianIdNumber::parse}.
+     * @param pool      The pool to validate the chunks of a file.
+     * @param chunkSize The size of a chunk of a file which is validated by a single task.
+     */
+    public MappedFileValidator(final ToLongFunction<CharSequence> parser, final ForkJoinPool pool, final int chunkSize) {
+        if (chunkSize < 1 || chunkSize > Integer.MAX_VALUE - MAX_LINE_LENGTH - 1) {
+            throw new IllegalArgumentException("Chunk size out of range: " + chunkSize);
+        }
+        this.parser = parser;
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Validates all lines of a file.
+     *
+     * @param file The file to validate.
+     * @return The report of the file's lines.
+     * @throws IOException If the file cannot be read.
+     */
+    public ValidationReport validate(final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return pool.invoke(new Chunk(channel, 0, channel.size()));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * A part of a file which contains all lines that start within the part. Tasks are never serialized.
+     */
+    @SuppressWarnings("serial")
+    private final class Chunk extends RecursiveTask<ValidationReport> {
+
+        private final FileChannel channel;
+
+        private final long start, end;
+
+        private Chunk(final FileChannel channel, final long start, final long end) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected ValidationReport compute() {
+            if (end - start > chunkSize) {
+                long middle = start + (end - start) / 2;
+                Chunk right = new Chunk(channel, middle, end);
+                right.fork();
+                return new Chunk(channel, start, middle).compute().append(right.join());
+            }
+            try {
+                return scan();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private ValidationReport scan() throws IOException {
+            ValidationReport report = new ValidationReport();
+            if (start == end) {
+                return report;
+            }
+            // One byte before the chunk is mapped to determine if the chunk starts with a line.
+            long position = Math.max(0, start - 1);
+            long limit = Math.min(channel.size(), end + MAX_LINE_LENGTH);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, limit - position);
+            int size = buffer.limit(), chunkEnd = (int) (end - position);
+
+            int index = 0;
+            if (start > 0) {
+                while (index < size && buffer.get(index) != '\n') {
+                    index++;
+                }
+                index++;
+            }
+
+            AsciiSequence token = new AsciiSequence();
+            while (index < chunkEnd) {
+                int lineStart = index;
+                while (index < size && buffer.get(index) != '\n') {
+                    index++;
+                }
+                int from = lineStart, to = index;
+                while (from < to && isWhitespace(buffer.get(from))) {
+                    from++;
+                }
+                while (to > from && isWhitespace(buffer.get(to - 1))) {
+                    to--;
+                }
+                if (from < to) {
+                    long result = parser.applyAsLong(token.wrap(buffer, from, to - from));
+                    report.add(position + lineStart, ParseResult.status(result));
+                }
+                index++;
+            }
+            return report;
+        }
+    }
+
+    private static boolean isWhitespace(final byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+}
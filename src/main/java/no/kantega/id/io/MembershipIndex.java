@@ -0,0 +1,208 @@
+package no.kantega.id.io;
+
+import no.kantega.id.scheme.CompactId;
+import no.kantega.id.scheme.Scheme;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A read-only set of ID numbers of one {@link Scheme} that is stored in a file and memory-mapped for lookups. The
+ * IDs are stored as {@link CompactId}s in the Eytzinger layout, i.e. as an implicit binary search tree in
+ * breadth-first order, such that the first levels of the tree share few pages and cache lines and a lookup does
+ * not need to load anything onto the heap. Opening an index therefore takes constant time regardless of its size.
+ * All spellings of an ID, such as an Icelandic ID with or without hyphen, are the same member.
+ * <p>
+ * An index file consists of a header of {@value #HEADER_SIZE} bytes, containing a magic number, the format version,
+ * the ordinal of the scheme and the number of IDs, followed by the IDs as 8 byte values.
+ * <p>
+ * Instances are thread-safe.
+ */
+public final class MembershipIndex {
+
+    /**
+     * The size of the header of an index file.
+     */
+    public static final int HEADER_SIZE = 24;
+
+    private static final int MAGIC = 0x4B494458, VERSION = 1;
+
+    /**
+     * The maximum number of IDs of an index such that the index can be mapped as a single buffer.
+     */
+    public static final int MAX_SIZE = (Integer.MAX_VALUE - HEADER_SIZE) / Long.BYTES;
+
+    private final Scheme scheme;
+
+    private final LongBuffer ids;
+
+    private final int size;
+
+    private MembershipIndex(Scheme scheme, LongBuffer ids, int size) {
+        this.scheme = scheme;
+        this.ids = ids;
+        this.size = size;
+    }
+
+    /**
+     * Writes an index of all valid ID numbers among a number of tokens. Invalid tokens and duplicates, also in
+     * other spellings, are skipped.
+     *
+     * @param scheme The scheme of the tokens.
+     * @param tokens The tokens to index.
+     * @param file   The file to write, which is replaced if it exists.
+     * @return The number of IDs in the index.
+     * @throws IOException If the file cannot be written.
+     */
+    public static int write(Scheme scheme, Iterable<? extends CharSequence> tokens, Path file) throws IOException {
+        long[] keys = new long[1024];
+        int count = 0;
+        for (CharSequence token : tokens) {
+            long compact = CompactId.encode(scheme, token);
+            if (CompactId.isValid(compact)) {
+                if (count == keys.length) {
+                    if (count == MAX_SIZE) {
+                        throw new IllegalArgumentException("Index exceeds " + MAX_SIZE + " IDs");
+                    }
+                    keys = Arrays.copyOf(keys, (int) Math.min(MAX_SIZE, 2L * count));
+                }
+                keys[count++] = key(compact);
+            }
+        }
+        Arrays.sort(keys, 0, count);
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            if (size == 0 || keys[i] != keys[size - 1]) {
+                keys[size++] = keys[i];
+            }
+        }
+
+        long[] tree = new long[size];
+        eytzinger(keys, tree, 0, 1);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putInt(scheme.ordinal()).putInt(0).putLong(size).flip();
+            writeFully(channel, header);
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            for (long id : tree) {
+                if (!buffer.hasRemaining()) {
+                    buffer.flip();
+                    writeFully(channel, buffer);
+                    buffer.clear();
+                }
+                buffer.putLong(id);
+            }
+            buffer.flip();
+            writeFully(channel, buffer);
+        }
+        return size;
+    }
+
+    /**
+     * Opens an index by memory-mapping its file.
+     *
+     * @param file The index file.
+     * @return The index of the file.
+     * @throws IOException If the file cannot be read or is not an index.
+     */
+    public static MembershipIndex open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("Not a membership index: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Not a membership index of version " + VERSION + ": " + file);
+            }
+            int scheme = buffer.getInt(8);
+            long size = buffer.getLong(16);
+            if (scheme < 0 || scheme >= Scheme.values().length || size != (channel.size() - HEADER_SIZE) / Long.BYTES) {
+                throw new IOException("Corrupt membership index: " + file);
+            }
+            buffer.position(HEADER_SIZE);
+            return new MembershipIndex(Scheme.values()[scheme], buffer.slice().asLongBuffer(), (int) size);
+        }
+    }
+
+    /**
+     * Checks if the index contains the ID number of a token.
+     *
+     * @param token The token to look up.
+     * @return {@code true} if the token is a valid ID number that is contained in the index.
+     */
+    public boolean contains(CharSequence token) {
+        return contains(CompactId.encode(scheme, token));
+    }
+
+    /**
+     * Checks if the index contains an ID number.
+     *
+     * @param compact The ID number as encoded by {@link CompactId}.
+     * @return {@code true} if the ID number is contained in the index.
+     */
+    public boolean contains(long compact) {
+        if (!CompactId.isValid(compact)) {
+            return false;
+        }
+        long key = key(compact);
+        int k = 1;
+        while (k <= size) {
+            k = 2 * k + (ids.get(k - 1) < key ? 1 : 0);
+        }
+        k >>>= Integer.numberOfTrailingZeros(~k) + 1;
+        return k != 0 && ids.get(k - 1) == key;
+    }
+
+    /**
+     * Returns the scheme of the IDs of this index.
+     *
+     * @return The scheme of this index.
+     */
+    public Scheme getScheme() {
+        return scheme;
+    }
+
+    /**
+     * Returns the number of IDs of this index.
+     *
+     * @return The number of IDs.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Maps a compact ID to a key that is equal for all spellings of the ID, see {@link CompactId#canonical(long)}, and
+     * that orders compact IDs as unsigned values when compared as signed values.
+     */
+    private static long key(long compact) {
+        return CompactId.canonical(compact) ^ Long.MIN_VALUE;
+    }
+
+    /**
+     * Places the sorted keys in the breadth-first order of the implicit tree, visiting the tree in order such that
+     * the keys are consumed in ascending order. Returns the index of the next key to place.
+     */
+    private static int eytzinger(long[] sorted, long[] tree, int next, int k) {
+        if (k <= tree.length) {
+            next = eytzinger(sorted, tree, next, 2 * k);
+            tree[k - 1] = sorted[next++];
+            next = eytzinger(sorted, tree, next, 2 * k + 1);
+        }
+        return next;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
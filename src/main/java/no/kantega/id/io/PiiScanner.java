@@ -0,0 +1,158 @@
+package no.kantega.id.io;
+
+import no.kantega.id.scheme.Scheme;
+import no.kantega.id.scheme.SchemeDetector;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Set;
+
+/**
+ * Finds ID numbers of all {@link Scheme}s in ASCII or UTF-8 encoded text, for example to audit logs for leaked personal
+ * data. The scanner is fed with the bytes of a text in one pass and reports every ID number that it finds to a
+ * {@link Handler} with its offset and scheme.
+ * <p>
+ * A byte class table splits the text into words of digits, letters, {@code -} and {@code +}, separated by any other
+ * byte, and every word is split further at its signs, see {@link Words}. Each piece of a word and each pair of
+ * adjacent pieces joined by a sign is a candidate, so that an ID number is found even where a sign joins it to other
+ * text, as in {@code fnr-13020955966}. Only candidates of the length of an ID number are retained, which are at most
+ * {@value #MAX_WORD_LENGTH} bytes, such that the scanner runs in constant memory regardless of the length of the text
+ * and of words being split between two calls of {@link #feed(byte[], int, int)}. Every candidate is classified by
+ * {@link SchemeDetector#detect(CharSequence)}, which checks the layout, the date and the checksum of the candidate
+ * schemes.
+ * <p>
+ * Instances are not thread-safe.
+ */
+public final class PiiScanner {
+
+    /**
+     * Receives the ID numbers found by a scanner.
+     */
+    @FunctionalInterface
+    public interface Handler {
+
+        /**
+         * Receives an ID number. A token that is valid by several schemes is reported once for each scheme.
+         *
+         * @param offset The offset of the first byte of the ID number in the text.
+         * @param length The number of bytes of the ID number.
+         * @param scheme A scheme by which the ID number is valid.
+         */
+        void found(long offset, int length, Scheme scheme);
+    }
+
+    /**
+     * The maximum length of a word that can be an ID number.
+     */
+    public static final int MAX_WORD_LENGTH = Words.MAX_LENGTH;
+
+    private static final Scheme[] SCHEMES = Scheme.values();
+
+    private final Handler handler;
+
+    private final int schemes;
+
+    // The held bytes of the current word, including the byte that is being fed.
+    private final byte[] word = new byte[MAX_WORD_LENGTH + 1];
+
+    private final AsciiSequence token = new AsciiSequence();
+
+    private final ByteBuffer buffer = ByteBuffer.wrap(word);
+
+    private final Words.Splitter splitter = new Words.Splitter() {
+        @Override
+        void candidate(int from, int to) {
+            report(from, to);
+        }
+    };
+
+    private long position;
+
+    // The offset of the first held byte in the text.
+    private long wordStart;
+
+    private int wordLength;
+
+    /**
+     * Creates a scanner for ID numbers of all schemes.
+     *
+     * @param handler The handler of the found ID numbers.
+     */
+    public PiiScanner(Handler handler) {
+        this(handler, Scheme.setOf(-1));
+    }
+
+    /**
+     * Creates a scanner for ID numbers of some schemes.
+     *
+     * @param handler The handler of the found ID numbers.
+     * @param schemes The schemes to report.
+     */
+    public PiiScanner(Handler handler, Set<Scheme> schemes) {
+        this.handler = handler;
+        this.schemes = Words.bits(schemes);
+    }
+
+    /**
+     * Scans the next bytes of the text.
+     *
+     * @param bytes  An array containing the bytes.
+     * @param offset The index of the first byte to scan.
+     * @param length The number of bytes to scan.
+     */
+    public void feed(byte[] bytes, int offset, int length) {
+        for (int i = offset, end = offset + length; i < end; i++) {
+            byte b = bytes[i];
+            word[wordLength] = b;
+            splitter.next(wordLength, Words.classOf(b & 0xFF));
+            hold(wordLength + 1);
+        }
+        position += length;
+    }
+
+    /**
+     * Completes the scan of the text, reporting an ID number at the very end of the text. The scanner can then be
+     * used for another text, where offsets continue from the end of this text.
+     */
+    public void finish() {
+        splitter.end(wordLength);
+        hold(wordLength);
+    }
+
+    /**
+     * Scans a text from a stream until its end, including {@link #finish()}.
+     *
+     * @param in The stream of the text.
+     * @return The number of bytes scanned.
+     * @throws IOException If the stream cannot be read.
+     */
+    public long scan(InputStream in) throws IOException {
+        byte[] bytes = new byte[64 * 1024];
+        long start = position;
+        int read;
+        while ((read = in.read(bytes)) != -1) {
+            feed(bytes, 0, read);
+        }
+        finish();
+        return position - start;
+    }
+
+    // Drops the bytes before the first byte that is still held by the splitter.
+    private void hold(int length) {
+        int held = splitter.held();
+        int from = held < 0 ? length : held;
+        System.arraycopy(word, from, word, 0, length - from);
+        splitter.shift(from);
+        wordStart += from;
+        wordLength = length - from;
+    }
+
+    private void report(int from, int to) {
+        int found = SchemeDetector.detect(token.wrap(buffer, from, to - from)) & schemes;
+        while (found != 0) {
+            handler.found(wordStart + from, to - from, SCHEMES[Integer.numberOfTrailingZeros(found)]);
+            found &= found - 1;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package no.kantega.id.io;
+
+import no.kantega.id.scheme.Scheme;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * A stream of ASCII or UTF-8 encoded text in which valid ID numbers are masked, for example to ship logs without
+ * personal data. The digits and letters of an ID number are replaced by {@code *}, except for the leading birthday
+ * part of the ID number, see {@link PiiScanner} for how ID numbers are found. A Norwegian ID number
+ * {@code 13020955966} is read as {@code 130209*****}.
+ * <p>
+ * The text passes through a buffer in which only the bytes of a word at the end of the buffer that may still be part
+ * of an ID number are held back, such that at most {@value PiiScanner#MAX_WORD_LENGTH} bytes are delayed and the stream never needs to read ahead
+ * further than the underlying stream delivers.
+ */
+public final class RedactingInputStream extends FilterInputStream {
+
+    private final byte[] bytes = new byte[RedactionBuffer.SIZE];
+
+    private final ByteBuffer wrapped = ByteBuffer.wrap(bytes);
+
+    private final AsciiSequence token = new AsciiSequence();
+
+    private final RedactionBuffer buffer;
+
+    /**
+     * Creates a stream that masks the ID numbers of all schemes.
+     *
+     * @param in The stream of the text.
+     */
+    public RedactingInputStream(InputStream in) {
+        this(in, EnumSet.allOf(Scheme.class));
+    }
+
+    /**
+     * Creates a stream that masks the ID numbers of some schemes.
+     *
+     * @param in      The stream of the text.
+     * @param schemes The schemes to mask.
+     */
+    public RedactingInputStream(InputStream in, Set<Scheme> schemes) {
+        super(in);
+        this.buffer = new RedactionBuffer(Words.bits(schemes)) {
+            @Override
+            int read(int offset, int length) throws IOException {
+                return RedactingInputStream.this.in.read(bytes, offset, length);
+            }
+
+            @Override
+            void moveToStart(int from, int length) {
+                System.arraycopy(bytes, from, bytes, 0, length);
+            }
+
+            @Override
+            byte classOf(int index) {
+                return Words.classOf(bytes[index] & 0xFF);
+            }
+
+            @Override
+            CharSequence region(int from, int to) {
+                return token.wrap(wrapped, from, to - from);
+            }
+
+            @Override
+            void mask(int index) {
+                bytes[index] = (byte) RedactionBuffer.MASK;
+            }
+        };
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (buffer.ready(1) == -1) {
+            return -1;
+        }
+        int c = bytes[buffer.position()] & 0xFF;
+        buffer.take(1);
+        return c;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        } else if (len == 0) {
+            return 0;
+        }
+        int read = buffer.ready(len);
+        if (read > 0) {
+            System.arraycopy(bytes, buffer.position(), b, off, read);
+            buffer.take(read);
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = 0;
+        int step;
+        while (skipped < n && (step = buffer.ready((int) Math.min(n - skipped, Integer.MAX_VALUE))) > 0) {
+            buffer.take(step);
+            skipped += step;
+        }
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return buffer.available();
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public synchronized void mark(int readlimit) {
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+}
@@ -0,0 +1,128 @@
+package no.kantega.id.io;
+
+import no.kantega.id.scheme.Scheme;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * A reader of text in which valid ID numbers are masked, like {@link RedactingInputStream} does for encoded text.
+ * At most {@value PiiScanner#MAX_WORD_LENGTH} characters of a word that may still be part of an ID number are held
+ * back.
+ */
+public final class RedactingReader extends FilterReader {
+
+    private final char[] chars = new char[RedactionBuffer.SIZE];
+
+    private final CharBuffer token = CharBuffer.wrap(chars);
+
+    private final RedactionBuffer buffer;
+
+    /**
+     * Creates a reader that masks the ID numbers of all schemes.
+     *
+     * @param in The reader of the text.
+     */
+    public RedactingReader(Reader in) {
+        this(in, EnumSet.allOf(Scheme.class));
+    }
+
+    /**
+     * Creates a reader that masks the ID numbers of some schemes.
+     *
+     * @param in      The reader of the text.
+     * @param schemes The schemes to mask.
+     */
+    public RedactingReader(Reader in, Set<Scheme> schemes) {
+        super(in);
+        this.buffer = new RedactionBuffer(Words.bits(schemes)) {
+            @Override
+            int read(int offset, int length) throws IOException {
+                return RedactingReader.this.in.read(chars, offset, length);
+            }
+
+            @Override
+            void moveToStart(int from, int length) {
+                System.arraycopy(chars, from, chars, 0, length);
+            }
+
+            @Override
+            byte classOf(int index) {
+                return Words.classOf(chars[index]);
+            }
+
+            @Override
+            CharSequence region(int from, int to) {
+                token.clear();
+                token.position(from);
+                token.limit(to);
+                return token;
+            }
+
+            @Override
+            void mask(int index) {
+                chars[index] = RedactionBuffer.MASK;
+            }
+        };
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (buffer.ready(1) == -1) {
+            return -1;
+        }
+        int c = chars[buffer.position()];
+        buffer.take(1);
+        return c;
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || len > cbuf.length - off) {
+            throw new IndexOutOfBoundsException();
+        } else if (len == 0) {
+            return 0;
+        }
+        int read = buffer.ready(len);
+        if (read > 0) {
+            System.arraycopy(chars, buffer.position(), cbuf, off, read);
+            buffer.take(read);
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = 0;
+        int step;
+        while (skipped < n && (step = buffer.ready((int) Math.min(n - skipped, Integer.MAX_VALUE))) > 0) {
+            buffer.take(step);
+            skipped += step;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean ready() throws IOException {
+        return buffer.available() > 0;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public void mark(int readAheadLimit) throws IOException {
+        throw new IOException("mark() not supported");
+    }
+
+    @Override
+    public void reset() throws IOException {
+        throw new IOException("reset() not supported");
+    }
+}
@@ -0,0 +1,168 @@
+package no.kantega.id.io;
+
+import no.kantega.id.scheme.SchemeDetector;
+
+import java.io.IOException;
+
+/**
+ * A buffer of text in which valid ID numbers are masked, shared by {@link RedactingInputStream} and
+ * {@link RedactingReader}, which provide the storage of the text and read it from their source. The digits and
+ * letters of an ID number are replaced by {@link #MASK}, except for the leading birthday part, see {@link Words}.
+ * <p>
+ * Only the characters of a word at the end of the buffer that may still be part of an ID number are held back,
+ * which are at most {@value Words#MAX_LENGTH} characters, such that the text never needs to be read ahead further
+ * than the source delivers.
+ * <p>
+ * Instances are not thread-safe.
+ */
+abstract class RedactionBuffer {
+
+    static final int SIZE = 8192;
+
+    static final char MASK = '*';
+
+    private final int schemes;
+
+    private final Words.Splitter splitter = new Words.Splitter() {
+        @Override
+        void candidate(int from, int to) {
+            redact(from, to);
+        }
+    };
+
+    // The buffer holds redacted characters in [position, ready) and characters held back in [ready, limit).
+    private int position, ready, limit;
+
+    private boolean end;
+
+    /**
+     * Creates an empty buffer.
+     *
+     * @param schemes The bits of the schemes to mask, see {@link Words#bits(Iterable)}.
+     */
+    RedactionBuffer(int schemes) {
+        this.schemes = schemes;
+    }
+
+    /**
+     * Reads characters of the text into the storage of this buffer.
+     *
+     * @param offset The index of the first character to read.
+     * @param length The maximum number of characters to read.
+     * @return The number of characters read, or {@code -1} at the end of the text.
+     * @throws IOException If the text cannot be read.
+     */
+    abstract int read(int offset, int length) throws IOException;
+
+    /**
+     * Moves characters of the storage to its start.
+     *
+     * @param from   The index of the first character to move.
+     * @param length The number of characters to move.
+     */
+    abstract void moveToStart(int from, int length);
+
+    /**
+     * Returns the class of a character of the storage, see {@link Words#classOf(int)}.
+     *
+     * @param index The index of the character.
+     * @return The class of the character.
+     */
+    abstract byte classOf(int index);
+
+    /**
+     * Returns a view of a region of the storage, which is valid until the next call.
+     *
+     * @param from The index of the first character of the region.
+     * @param to   The index after the last character of the region.
+     * @return The characters of the region.
+     */
+    abstract CharSequence region(int from, int to);
+
+    /**
+     * Replaces a character of the storage by {@link #MASK}.
+     *
+     * @param index The index of the character.
+     */
+    abstract void mask(int index);
+
+    /**
+     * Returns the number of redacted characters that can be taken, reading and redacting more of the text if all
+     * redacted characters were taken.
+     *
+     * @param max The maximum number of characters to take.
+     * @return The number of characters from {@link #position()}, or {@code -1} at the end of the text.
+     * @throws IOException If the text cannot be read.
+     */
+    final int ready(int max) throws IOException {
+        if (position == ready && !fill()) {
+            return -1;
+        }
+        return Math.min(max, ready - position);
+    }
+
+    /**
+     * Returns the number of redacted characters that can be taken without reading.
+     *
+     * @return The number of characters from {@link #position()}.
+     */
+    final int available() {
+        return ready - position;
+    }
+
+    /**
+     * Returns the index of the next redacted character.
+     *
+     * @return The index of the character in the storage.
+     */
+    final int position() {
+        return position;
+    }
+
+    /**
+     * Takes redacted characters.
+     *
+     * @param count The number of characters, at most as many as are ready.
+     */
+    final void take(int count) {
+        position += count;
+    }
+
+    private boolean fill() throws IOException {
+        while (!end) {
+            int held = limit - ready;
+            moveToStart(ready, held);
+            splitter.shift(ready);
+            position = ready = 0;
+            limit = held;
+            int read = read(held, SIZE - held);
+            if (read == -1) {
+                end = true;
+                splitter.end(limit);
+                ready = limit;
+            } else {
+                limit += read;
+                for (int i = held; i < limit; i++) {
+                    splitter.next(i, classOf(i));
+                }
+                int start = splitter.held();
+                ready = start >= 0 ? start : limit;
+            }
+            if (ready > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void redact(int from, int to) {
+        int found = SchemeDetector.detect(region(from, to)) & schemes;
+        if (found != 0) {
+            for (int i = from + Words.kept(found, to - from); i < to; i++) {
+                if (classOf(i) == Words.WORD) {
+                    mask(i);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package no.kantega.id.io;
+
+import no.kantega.id.api.ParseResult;
+
+import java.util.Arrays;
+
+/**
+ * The result of validating a file of tokens, one token per line. The report counts the lines by their status code
+ * as defined by {@link ParseResult} and records the byte offset of every invalid line in ascending order. Blank
+ * lines are neither counted nor recorded.
+ */
+public final class ValidationReport {
+
+    private static final int STATUSES = 4;
+
+    private final long[] counts = new long[STATUSES];
+
+    private long[] invalidOffsets = new long[16];
+
+    private int invalid;
+
+    ValidationReport() {
+    }
+
+    /**
+     * Records the status of a line.
+     *
+     * @param offset The byte offset of the line in the file.
+     * @param status The status code of the line's token.
+     */
+    void add(long offset, byte status) {
+        counts[status]++;
+        if (status != ParseResult.OK) {
+            if (invalid == invalidOffsets.length) {
+                invalidOffsets = Arrays.copyOf(invalidOffsets, 2 * invalid);
+            }
+            invalidOffsets[invalid++] = offset;
+        }
+    }
+
+    /**
+     * Appends the report of the subsequent part of a file to this report.
+     *
+     * @param other The report of the part of the file following the part of this report.
+     * @return This report.
+     */
+    ValidationReport append(ValidationReport other) {
+        for (int i = 0; i < STATUSES; i++) {
+            counts[i] += other.counts[i];
+        }
+        if (invalid + other.invalid > invalidOffsets.length) {
+            invalidOffsets = Arrays.copyOf(invalidOffsets, Math.max(2 * invalidOffsets.length, invalid + other.invalid));
+        }
+        System.arraycopy(other.invalidOffsets, 0, invalidOffsets, invalid, other.invalid);
+        invalid += other.invalid;
+        return this;
+    }
+
+    /**
+     * Returns the number of non-blank lines.
+     *
+     * @return The number of validated lines.
+     */
+    public long lines() {
+        long lines = 0;
+        for (long count : counts) {
+            lines += count;
+        }
+        return lines;
+    }
+
+    /**
+     * Returns the number of lines with a valid token.
+     *
+     * @return The number of valid lines.
+     */
+    public long valid() {
+        return counts[ParseResult.OK];
+    }
+
+    /**
+     * Returns the number of lines with an invalid token.
+     *
+     * @return The number of invalid lines.
+     */
+    public long invalid() {
+        return invalid;
+    }
+
+    /**
+     * Returns the number of lines with a given status.
+     *
+     * @param status The status code as defined by {@link ParseResult}.
+     * @return The number of lines with the given status.
+     */
+    public long count(byte status) {
+        return status >= 0 && status < STATUSES ? counts[status] : 0;
+    }
+
+    /**
+     * Returns the byte offsets of all invalid lines.
+     *
+     * @return The offsets of the first byte of every invalid line, in ascending order.
+     */
+    public long[] invalidOffsets() {
+        return Arrays.copyOf(invalidOffsets, invalid);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("ValidationReport{lines=").append(lines());
+        for (byte status = 0; status < STATUSES; status++) {
+            builder.append(", ").append(ParseResult.name(status)).append('=').append(counts[status]);
+        }
+        return builder.append('}').toString();
+    }
+}
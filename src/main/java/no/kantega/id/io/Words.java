@@ -0,0 +1,155 @@
+package no.kantega.id.io;
+
+import no.kantega.id.scheme.Scheme;
+
+/**
+ * Utility for finding ID numbers in text, which is split into words of digits, letters, {@code -} and {@code +},
+ * separated by any other character. A word is further split at its signs into pieces, and an ID number is either a
+ * piece or two adjacent pieces joined by a single sign, as in the Swedish, Finnish and Icelandic layouts. This finds
+ * ID numbers that are joined to other text by a sign, such as {@code fnr-13020955966}. Only candidates of
+ * {@value #MIN_LENGTH} to {@value #MAX_LENGTH} characters can be ID numbers.
+ */
+final class Words {
+
+    static final int MIN_LENGTH = 8, MAX_LENGTH = 13;
+
+    static final byte OTHER = 0, WORD = 1, SIGN = 2;
+
+    private static final byte[] CLASSES = new byte[128];
+
+    static {
+        for (char c = '0'; c <= '9'; c++) {
+            CLASSES[c] = WORD;
+        }
+        for (char c = 'A'; c <= 'Z'; c++) {
+            CLASSES[c] = CLASSES[Character.toLowerCase(c)] = WORD;
+        }
+        CLASSES['-'] = CLASSES['+'] = SIGN;
+    }
+
+    private Words() {
+    }
+
+    /**
+     * Returns the class of a character or an unsigned byte.
+     *
+     * @param c The character.
+     * @return {@link #WORD} for digits and letters, {@link #SIGN} for signs and {@link #OTHER} for separators.
+     */
+    static byte classOf(int c) {
+        return c < CLASSES.length ? CLASSES[c] : OTHER;
+    }
+
+    /**
+     * Returns the bits of the schemes that are given by a set of schemes.
+     *
+     * @param schemes The schemes.
+     * @return The bits of the schemes, see {@link Scheme#bit()}.
+     */
+    static int bits(Iterable<Scheme> schemes) {
+        int bits = 0;
+        for (Scheme scheme : schemes) {
+            bits |= scheme.bit();
+        }
+        return bits;
+    }
+
+    /**
+     * Returns the number of leading characters of an ID number that are left unmasked by a redaction, i.e. the
+     * birthday in the order of the token. Irish ID numbers do not contain a birthday and are masked entirely.
+     *
+     * @param schemes The bits of the schemes by which the ID number is valid.
+     * @param length  The length of the ID number.
+     * @return The number of characters to keep.
+     */
+    static int kept(int schemes, int length) {
+        return (schemes & Scheme.IRELAND.bit()) != 0 ? 0 : length >= 12 ? 8 : 6;
+    }
+
+    /**
+     * Splits the words of a text into candidates for ID numbers while the text is fed one character at a time, such
+     * that a word of any length is split while holding at most {@value #MAX_LENGTH} characters of it. The indices of
+     * the characters are chosen by the caller, which can {@link #shift(int)} them when it moves its buffer.
+     */
+    abstract static class Splitter {
+
+        private static final int NONE = -1;
+
+        // The start of the current piece and of the previous piece if both can still form an ID number.
+        private int piece = NONE, previous = NONE;
+
+        private boolean overlong;
+
+        /**
+         * Receives a candidate for an ID number, which is a piece or two pieces joined by a sign.
+         *
+         * @param from The index of the first character of the candidate.
+         * @param to   The index after the last character of the candidate.
+         */
+        abstract void candidate(int from, int to);
+
+        /**
+         * Feeds the next character of the text.
+         *
+         * @param index The index of the character, which must follow the index of the previous character.
+         * @param c     The class of the character, see {@link #classOf(int)}.
+         */
+        final void next(int index, byte c) {
+            if (c == WORD) {
+                if (piece == NONE && !overlong) {
+                    piece = index;
+                } else if (piece != NONE && index - piece == MAX_LENGTH) {
+                    piece = previous = NONE;
+                    overlong = true;
+                }
+                if (previous != NONE && index - previous == MAX_LENGTH) {
+                    previous = NONE;
+                }
+                return;
+            }
+            if (piece != NONE) {
+                if (index - piece >= MIN_LENGTH) {
+                    candidate(piece, index);
+                }
+                if (previous != NONE && index - previous >= MIN_LENGTH) {
+                    candidate(previous, index);
+                }
+            }
+            previous = c == SIGN && piece != NONE && index - piece <= MAX_LENGTH - 2 ? piece : NONE;
+            piece = NONE;
+            overlong = false;
+        }
+
+        /**
+         * Completes the current word at the end of the text.
+         *
+         * @param index The index after the last character of the text.
+         */
+        final void end(int index) {
+            next(index, OTHER);
+        }
+
+        /**
+         * Returns the first character that may still be part of a candidate.
+         *
+         * @return The index of the character, or a negative value if no character is held.
+         */
+        final int held() {
+            return previous != NONE ? previous : piece;
+        }
+
+        /**
+         * Moves the indices of the held characters towards zero.
+         *
+         * @param distance The distance by which the characters were moved.
+         */
+        final void shift(int distance) {
+            if (piece != NONE) {
+                piece -= distance;
+            }
+            if (previous != NONE) {
+                previous -= distance;
+            }
+        }
+    }
+}
@@ -1,15 +1,20 @@
 package no.kantega.id.is;
 
+import no.kantega.id.api.Dates;
+import no.kantega.id.api.DecodedBatch;
+import no.kantega.id.api.Gender;
 import no.kantega.id.api.IdNumber;
 import no.kantega.id.api.LocalIdNumber;
+import no.kantega.id.api.ParseResult;
+import no.kantega.id.scheme.CompactId;
+import no.kantega.id.scheme.Scheme;
 
-import java.time.DateTimeException;
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
-
-import static java.lang.Integer.parseInt;
-import static java.util.Optional.empty;
+import java.util.stream.Collectors;
 
 /**
  * Representation of an Icelandish ID-number (Kennitala/Kennitölur).
@@ -21,6 +26,10 @@ import static java.util.Optional.empty;
  * 120174-3399.
  * <p>
  * The check digit equations is V = 11 - ((3a1 + 2a2 + 7a3 + 6a4 + 5a5 + 4a6 + 3a7 + 2a8) mod 11)
+ * where a V of 11 is written as 0. Numbers that would have a V of 10 are not allocated.
+ * <p>
+ * Kennit&ouml;lur of companies and other legal entities have 40 added to the day of the date of registration,
+ * see {@link Type}.
  * <p>
  * More information:
  * <p>
@@ -31,10 +40,40 @@ import static java.util.Optional.empty;
  */
 public class IcelandishIdNumber extends LocalIdNumber {
 
+    /**
+     * Describes the type of the given kennitala.
+     */
+    public enum Type {
+
+        /**
+         * A kennitala of an individual, where the first six digits are the date of birth.
+         */
+        PERSON,
+
+        /**
+         * A kennitala of a company or another legal entity, where 40 is added to the day of the date of
+         * registration.
+         */
+        COMPANY
+    }
+
     public static final Locale LOCALE_ICELAND = new Locale("is", "IS");
 
     private static final int DIVIDER = 11;
 
+    private static final int LENGTH = 10;
+
+    private static final int HYPHEN = 6;
+
+    private static final int COMPANY_DAY_OFFSET = 40;
+
+    private static final int[] WEIGHTS = {3, 2, 7, 6, 5, 4, 3, 2};
+
+    private static final Type[] TYPES = Type.values();
+
+    private static final List<Optional<Type>> OPTIONAL_TYPES = Arrays.stream(TYPES).map(Optional::of)
+        .collect(Collectors.toList());
+
     protected IcelandishIdNumber(final String idToken, final Locale locale) {
         super(idToken, locale);
     }
@@ -47,6 +86,17 @@ public class IcelandishIdNumber extends LocalIdNumber {
         return new IcelandishIdNumber(idToken, locale);
     }
 
+    /**
+     * Encodes this ID as its {@link CompactId#canonical(long) canonical} {@link CompactId}, such that numbers with
+     * and without hyphen are equal.
+     *
+     * @return The compact encoding of this ID, or {@link CompactId#NONE} if the token is malformed.
+     */
+    @Override
+    protected long encode() {
+        return CompactId.canonical(CompactId.encode(Scheme.ICELAND, idToken));
+    }
+
     @Override
     protected boolean supports(final Locale locale) {
         return LOCALE_ICELAND.getCountry().equals(locale.getCountry());
@@ -64,65 +114,172 @@ public class IcelandishIdNumber extends LocalIdNumber {
 
      */
     public static boolean valid(final IdNumber idNumber) {
-        return patternMatches(idNumber) &&
-               birthday(idNumber).isPresent() &&
-               checkDigitIsValid(idNumber);
+        return ParseResult.isValid(parse(idNumber.getIdToken()));
     }
 
     /**
-     * check if the IdNumber matches the correct pattern (like 20174-3389 or 1201743389)
+     * Decodes a batch of tokens into columns of primitive arrays without creating any objects per token.
+     * The details are the ordinals of the {@link Type}s.
+     *
+     * @param tokens The tokens to decode.
+     * @param into   The columns to fill.
+     * @return The filled columns.
      */
-    private static boolean patternMatches(final IdNumber idNumber) {
-        return idNumber.getIdToken().matches("\\d{6}-?\\d{4}");
+    public static DecodedBatch decode(CharSequence[] tokens, DecodedBatch into) {
+        return into.decode(tokens, IcelandishIdNumber::parse);
     }
 
     /**
-     * Formula:
-     * V = 11 - ((3a1 + 2a2 + 7a3 + 6a4 + 5a5 + 4a6 + 3a7 + 2a8) mod 11)
+     * Decodes a batch of tokens into columns of primitive arrays without creating any objects per token.
+     * The details are the ordinals of the {@link Type}s.
+     *
+     * @param tokens The tokens to decode.
+     * @param into   The columns to fill.
+     * @return The filled columns.
      */
-    private static boolean checkDigitIsValid(final IdNumber idNumber) {
-        final int[] digit = digits(idNumber);
-        final int v = DIVIDER - (3 * digit[0] +
-                      2 * digit[1] +
-                      7 * digit[2] +
-                      6 * digit[3] +
-                      5 * digit[4] +
-                      4 * digit[5] +
-                      3 * digit[6] +
-                      2 * digit[7]) % DIVIDER;
-        return digit[8] == v;
+    public static DecodedBatch decode(List<? extends CharSequence> tokens, DecodedBatch into) {
+        return into.decode(tokens, IcelandishIdNumber::parse);
     }
 
     /**
-     * @return IdNumber as array of digits
+     * Determines the status of a given ID without throwing exceptions.
+     *
+     * @param idNumber The ID to be examined.
+     * @return The status code of the given ID, as defined by {@link ParseResult}.
      */
-    private static int[] digits(final IdNumber idNumber) {
-        return idNumber.getIdToken().chars() // stream of chars
-            .filter(c -> c != '-') // filter out hyphen
-            .map(Character::getNumericValue) // convert to int
-            .toArray();
+    public static byte status(final IdNumber idNumber) {
+        return ParseResult.status(parse(idNumber.getIdToken()));
     }
 
     /**
-     * @return the birthday, or none if no valid birtday can be retrieved
-     * @param idNumber ID number to validate
+     * Parses a token (like 120174-3399 or 1201743399) without creating any objects or throwing exceptions.
+     * Kennit&ouml;lur do not represent a gender. The detail of the result is the ordinal of the {@link Type},
+     * and the kennitala of a company does not represent a birthday.
+     *
+     * @param token The token to parse.
+     * @return The parse result as described by {@link ParseResult}.
      */
-    public static Optional<LocalDate> birthday(final IdNumber idNumber) {
-
-        final String token = idNumber.getIdToken();
+    public static long parse(final CharSequence token) {
+        final int length = token.length();
+        final boolean hyphenated = length == LENGTH + 1;
+        if (!hyphenated && length != LENGTH || hyphenated && token.charAt(HYPHEN) != '-') {
+            return ParseResult.MALFORMED;
+        }
 
-        final int day = parseInt(token.substring(0, 2));
-        final int month = parseInt(token.substring(2, 4));
-        final int shortYear = parseInt(token.substring(4, 6));
+        int day = 0, month = 0, shortYear = 0, sum = 0, checkDigit = 0, centuryDigit = 0;
+        for (int i = 0, position = 0; i < length; i++) {
+            if (hyphenated && i == HYPHEN) {
+                continue;
+            }
+            final int digit = token.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return ParseResult.MALFORMED;
+            }
+            if (position < 2) {
+                day = 10 * day + digit;
+            } else if (position < 4) {
+                month = 10 * month + digit;
+            } else if (position < 6) {
+                shortYear = 10 * shortYear + digit;
+            }
+            if (position < WEIGHTS.length) {
+                sum += WEIGHTS[position] * digit;
+            } else if (position == WEIGHTS.length) {
+                checkDigit = digit;
+            } else {
+                centuryDigit = digit;
+            }
+            position++;
+        }
 
-        final int centuryDigit = Integer.valueOf((token.substring(token.length() - 1)));
+        final Type type;
+        if (day > COMPANY_DAY_OFFSET) {
+            day -= COMPANY_DAY_OFFSET;
+            type = Type.COMPANY;
+        } else {
+            type = Type.PERSON;
+        }
         final int year = calculateYear(shortYear, centuryDigit);
+        final int epochDay = Dates.toEpochDay(year, month, day);
+        if (epochDay == Dates.NO_DATE) {
+            return ParseResult.of(ParseResult.BAD_DATE, Gender.UNKNOWN, ParseResult.NO_BIRTHDAY, type.ordinal());
+        }
 
-        try {
-            return Optional.of(LocalDate.of(year, month, day));
-        } catch (final DateTimeException e) {
-            return empty();
+        final byte status = checkDigit(sum) == checkDigit ? ParseResult.OK : ParseResult.BAD_CHECKSUM;
+        final int birthday = type == Type.PERSON ? epochDay : ParseResult.NO_BIRTHDAY;
+        return ParseResult.of(status, Gender.UNKNOWN, birthday, type.ordinal());
+    }
+
+    /**
+     * Formula:
+     * V = 11 - ((3a1 + 2a2 + 7a3 + 6a4 + 5a5 + 4a6 + 3a7 + 2a8) mod 11), where 11 is written as 0 and 10 is
+     * not a digit
+     */
+    private static int checkDigit(final int sum) {
+        final int v = DIVIDER - sum % DIVIDER;
+        return v == DIVIDER ? 0 : v;
+    }
+
+    /**
+     * Sets the check digit of a token from its first eight digits, for example to create a valid number from a
+     * modified one.
+     *
+     * @param token The characters of a token with or without hyphen, of which the ninth digit is replaced.
+     * @return {@code false} if no check digit exists for the first eight digits, such that the token stays invalid.
+     */
+    public static boolean fillControl(final char[] token) {
+        final boolean hyphenated = token.length == LENGTH + 1;
+        int sum = 0;
+        for (int position = 0; position < WEIGHTS.length; position++) {
+            sum += WEIGHTS[position] * (token[hyphenated && position >= HYPHEN ? position + 1 : position] - '0');
         }
+        final int checkDigit = checkDigit(sum);
+        if (checkDigit > 9) {
+            return false;
+        }
+        token[hyphenated ? WEIGHTS.length + 1 : WEIGHTS.length] = (char) ('0' + checkDigit);
+        return true;
+    }
+
+    /**
+     * Extracts the type of the given kennitala.
+     *
+     * @param idNumber The ID to be examined.
+     * @return The type of the kennitala, or empty if the token does not have the layout of a kennitala.
+     */
+    public static Optional<Type> type(final IdNumber idNumber) {
+        final long result = parse(idNumber.getIdToken());
+        return ParseResult.status(result) == ParseResult.BAD_FORMAT
+            ? Optional.empty()
+            : OPTIONAL_TYPES.get(ParseResult.detail(result));
+    }
+
+    /**
+     * @return the birthday, or none if no valid birtday can be retrieved or the kennitala is a company's
+     * @param idNumber ID number to validate
+     */
+    public static Optional<LocalDate> birthday(final IdNumber idNumber) {
+        return ParseResult.optionalBirthday(parse(idNumber.getIdToken()));
+    }
+
+    /**
+     * Extracts the birthday of a token without creating any objects, for example to filter or sort many IDs.
+     *
+     * @param token The token to examine.
+     * @return The birthday as epoch day like {@link #birthday(IdNumber)}, or {@link ParseResult#NO_BIRTHDAY} if not retrievable.
+     */
+    public static int birthdayEpochDay(final CharSequence token) {
+        return ParseResult.birthday(parse(token));
+    }
+
+    /**
+     * Extracts the gender of a token without creating any objects.
+     *
+     * @param token The token to examine.
+     * @return The ordinal of the {@link Gender}, which is always unknown for a kennitala, see {@link ParseResult#genderCode(long)}.
+     */
+    public static byte genderCode(final CharSequence token) {
+        return ParseResult.genderCode(parse(token));
     }
 
     /**
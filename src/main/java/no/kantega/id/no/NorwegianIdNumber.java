@@ -1,13 +1,20 @@
 package no.kantega.id.no;
 
+import no.kantega.id.api.Dates;
+import no.kantega.id.api.DecodedBatch;
 import no.kantega.id.api.Gender;
 import no.kantega.id.api.IdNumber;
 import no.kantega.id.api.LocalIdNumber;
+import no.kantega.id.api.ParseResult;
+import no.kantega.id.scheme.CompactId;
+import no.kantega.id.scheme.Scheme;
 
-import java.time.DateTimeException;
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * Representation of a <i>f&oslash;delsnummer</i> which is issued by the Norwegian Skatteetaten. A <i>f&oslash;
@@ -90,11 +97,18 @@ public class NorwegianIdNumber extends LocalIdNumber {
     private interface Interpreted {
 
         enum Obscure implements Interpreted {
-            INSTANCE;
+            MALFORMED(ParseResult.BAD_FORMAT),
+            UNDATED(ParseResult.BAD_DATE);
+
+            private final byte status;
+
+            private Obscure(byte status) {
+                this.status = status;
+            }
 
             @Override
-            public boolean isValid() {
-                return false;
+            public byte getStatus() {
+                return status;
             }
 
             @Override
@@ -116,15 +130,15 @@ public class NorwegianIdNumber extends LocalIdNumber {
 
         class Anonymous implements Interpreted {
 
-            private final boolean valid;
+            private final byte status;
 
-            public Anonymous(boolean valid) {
-                this.valid = valid;
+            public Anonymous(byte status) {
+                this.status = status;
             }
 
             @Override
-            public boolean isValid() {
-                return valid;
+            public byte getStatus() {
+                return status;
             }
 
             @Override
@@ -134,7 +148,7 @@ public class NorwegianIdNumber extends LocalIdNumber {
 
             @Override
             public Optional<Type> getType() {
-                return Optional.of(Type.FHNUMBER);
+                return OPTIONAL_TYPES.get(Type.FHNUMBER.ordinal());
             }
 
             @Override
@@ -145,40 +159,61 @@ public class NorwegianIdNumber extends LocalIdNumber {
 
         class Readable implements Interpreted {
 
-            private final Gender gender;
-            private final LocalDate birthday;
-            private final Type type;
-            private final boolean valid;
+            private final Optional<Gender> gender;
+            private final Optional<LocalDate> birthday;
+            private final Optional<Type> type;
+            private final byte status;
 
-            public Readable(Gender gender, LocalDate birthday, Type type, boolean valid) {
+            public Readable(Optional<Gender> gender, Optional<LocalDate> birthday, Optional<Type> type, byte status) {
                 this.gender = gender;
                 this.birthday = birthday;
                 this.type = type;
-                this.valid = valid;
+                this.status = status;
             }
 
             @Override
-            public boolean isValid() {
-                return valid;
+            public byte getStatus() {
+                return status;
             }
 
             @Override
             public Optional<Type> getType() {
-                return Optional.of(type);
+                return type;
             }
 
             @Override
             public Optional<Gender> getGender() {
-                return Optional.of(gender);
+                return gender;
             }
 
             @Override
             public Optional<LocalDate> getBirthday() {
-                return Optional.of(birthday);
+                return birthday;
             }
         }
 
-        boolean isValid();
+        static Interpreted of(long result) {
+            byte status = ParseResult.status(result);
+            if (status == ParseResult.BAD_FORMAT) {
+                return Obscure.MALFORMED;
+            } else if (status == ParseResult.BAD_DATE) {
+                return Obscure.UNDATED;
+            }
+            Type type = TYPES[ParseResult.detail(result)];
+            if (type == Type.FHNUMBER) {
+                return new Anonymous(status);
+            }
+            return new Readable(ParseResult.optionalGender(result),
+                ParseResult.optionalBirthday(result),
+                OPTIONAL_TYPES.get(type.ordinal()),
+                status);
+        }
+
+        byte getStatus();
+
+        default boolean isValid() {
+            return getStatus() == ParseResult.OK;
+        }
 
         Optional<Gender> getGender();
 
@@ -187,42 +222,64 @@ public class NorwegianIdNumber extends LocalIdNumber {
         Optional<LocalDate> getBirthday();
     }
 
-    private static Interpreted parse(String id) {
+    private static final Type[] TYPES = Type.values();
 
-        if (!id.matches("[0-9]{11}")) {
-            return Interpreted.Obscure.INSTANCE;
-        }
+    private static final List<Optional<Type>> OPTIONAL_TYPES = Arrays.stream(TYPES).map(Optional::of)
+        .collect(Collectors.toList());
 
-        int[] digit = new int[11];
-        for (int i = 0; i < digit.length; i++) {
-            digit[i] = Character.getNumericValue(id.charAt(i));
-        }
+    private static final int LENGTH = 11;
+
+    private static final int[] CONTROL1_WEIGHTS = {3, 7, 6, 1, 8, 9, 4, 5, 2};
 
-        boolean validChecksum = true;
+    private static final int[] CONTROL2_WEIGHTS = {5, 4, 3, 2, 7, 6, 5, 4, 3, 2};
 
-        int control1 = 11 - ((3 * digit[0] + 7 * digit[1] + 6 * digit[2] + digit[3]
-                + 8 * digit[4] + 9 * digit[5] + 4 * digit[6] + 5 * digit[7] + 2 * digit[8]) % 11);
-        if (control1 == 11) control1 = 0;
-        if (control1 != digit[9]) {
-            validChecksum = false;
+    /**
+     * Parses a token in a single pass over its characters without creating any objects or throwing exceptions.
+     * The detail of the result is the ordinal of the number's {@link Type}, if the token is well-formed.
+     *
+     * @param token The token to parse.
+     * @return The parse result as described by {@link ParseResult}.
+     */
+    public static long parse(CharSequence token) {
+
+        if (token.length() != LENGTH) {
+            return ParseResult.MALFORMED;
         }
 
-        int control2 = 11 - ((5 * digit[0] + 4 * digit[1] + 3 * digit[2] + 2 * digit[3]
-                + 7 * digit[4] + 6 * digit[5] + 5 * digit[6] + 4 * digit[7] +
-                3 * digit[8] + 2 * digit[9]) % 11);
-        if (control2 == 11) control2 = 0;
-        if (control2 != digit[10]) {
-            validChecksum = false;
+        int day = 0, month = 0, year = 0, ageRegion = 0, sum1 = 0, sum2 = 0, control1 = 0, control2 = 0;
+        for (int i = 0; i < LENGTH; i++) {
+            int digit = token.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return ParseResult.MALFORMED;
+            }
+            if (i < 2) {
+                day = 10 * day + digit;
+            } else if (i < 4) {
+                month = 10 * month + digit;
+            } else if (i < 6) {
+                year = 10 * year + digit;
+            } else if (i < 9) {
+                ageRegion = 10 * ageRegion + digit;
+            } else if (i == 9) {
+                control1 = digit;
+            } else {
+                control2 = digit;
+            }
+            if (i < CONTROL1_WEIGHTS.length) {
+                sum1 += CONTROL1_WEIGHTS[i] * digit;
+            }
+            if (i < CONTROL2_WEIGHTS.length) {
+                sum2 += CONTROL2_WEIGHTS[i] * digit;
+            }
         }
 
-        int ageRegion = Integer.valueOf(id.substring(6, 9));
-        int day = Integer.valueOf(id.substring(0, 2));
-        int month = Integer.valueOf(id.substring(2, 4));
-        int year = Integer.valueOf(id.substring(4, 6));
+        byte status = control(sum1) == control1 && control(sum2) == control2
+            ? ParseResult.OK
+            : ParseResult.BAD_CHECKSUM;
 
         Type type;
         if (day > 80) {
-            return new Interpreted.Anonymous(validChecksum);
+            return ParseResult.of(status, Gender.UNKNOWN, ParseResult.NO_BIRTHDAY, Type.FHNUMBER.ordinal());
         } else if (day > 40) {
             day -= 40;
             type = Type.DNUMBER;
@@ -243,19 +300,64 @@ public class NorwegianIdNumber extends LocalIdNumber {
             year += 1900;
         }
 
-        Gender gender = digit[8] % 2 == 0 ? Gender.FEMALE : Gender.MALE;
+        int birthday = Dates.toEpochDay(year, month, day);
+        if (birthday == Dates.NO_DATE) {
+            return ParseResult.of(ParseResult.BAD_DATE, Gender.UNKNOWN, ParseResult.NO_BIRTHDAY, type.ordinal());
+        }
 
-        try {
-            return new Interpreted.Readable(gender, LocalDate.of(year, month, day), type, validChecksum);
-        } catch (DateTimeException e) {
-            return Interpreted.Obscure.INSTANCE;
+        Gender gender = ageRegion % 2 == 0 ? Gender.FEMALE : Gender.MALE;
+
+        return ParseResult.of(status, gender, birthday, type.ordinal());
+    }
+
+    private static int control(int sum) {
+        int control = 11 - sum % 11;
+        return control == 11 ? 0 : control;
+    }
+
+    /**
+     * Sets the two control digits of a token from its first nine digits, for example to create a valid number
+     * from a modified one.
+     *
+     * @param token The eleven digits of a token, of which the last two are replaced.
+     * @return {@code false} if no control digits exist for the first nine digits, such that the token stays
+     * invalid.
+     */
+    public static boolean fillControl(char[] token) {
+        int sum1 = 0, sum2 = 0;
+        for (int i = 0; i < CONTROL1_WEIGHTS.length; i++) {
+            sum1 += CONTROL1_WEIGHTS[i] * (token[i] - '0');
+            sum2 += CONTROL2_WEIGHTS[i] * (token[i] - '0');
+        }
+        int control1 = control(sum1);
+        int control2 = control(sum2 + CONTROL2_WEIGHTS[CONTROL1_WEIGHTS.length] * control1);
+        if (control1 > 9 || control2 > 9) {
+            return false;
         }
+        token[9] = (char) ('0' + control1);
+        token[10] = (char) ('0' + control2);
+        return true;
+    }
+
+    /**
+     * Interprets the given ID, reusing the interpretation of a Norwegian ID number instance.
+     */
+    private static Interpreted interpret(IdNumber idNumber) {
+        return idNumber instanceof NorwegianIdNumber
+            ? ((NorwegianIdNumber) idNumber).interpreted()
+            : Interpreted.of(parse(idNumber.getIdToken()));
     }
 
     private static final String NORWAY = "NO";
 
     private static final Locale LOCALE_NORWAY = new Locale("no", NORWAY);
 
+    /**
+     * The memoized interpretation of this ID's token. Interpretations are immutable such that a racy
+     * initialization at worst parses the token more than once.
+     */
+    private Interpreted interpreted;
+
     /**
      * Creates a new Norwegian id number representation with Norwegian locale.
      *
@@ -303,7 +405,7 @@ public class NorwegianIdNumber extends LocalIdNumber {
      * @return The gender of this ID by the Norwegian ID definition, if retrievable.
      */
     public static Optional<Gender> gender(IdNumber idNumber) {
-        return parse(idNumber.getIdToken()).getGender();
+        return interpret(idNumber).getGender();
     }
 
     /**
@@ -315,6 +417,40 @@ public class NorwegianIdNumber extends LocalIdNumber {
         return gender(this);
     }
 
+    /**
+     * Decodes a batch of tokens into columns of primitive arrays without creating any objects per token.
+     * The details are the ordinals of the {@link Type}s.
+     *
+     * @param tokens The tokens to decode.
+     * @param into   The columns to fill.
+     * @return The filled columns.
+     */
+    public static DecodedBatch decode(CharSequence[] tokens, DecodedBatch into) {
+        return into.decode(tokens, NorwegianIdNumber::parse);
+    }
+
+    /**
+     * Decodes a batch of tokens into columns of primitive arrays without creating any objects per token.
+     * The details are the ordinals of the {@link Type}s.
+     *
+     * @param tokens The tokens to decode.
+     * @param into   The columns to fill.
+     * @return The filled columns.
+     */
+    public static DecodedBatch decode(List<? extends CharSequence> tokens, DecodedBatch into) {
+        return into.decode(tokens, NorwegianIdNumber::parse);
+    }
+
+    /**
+     * Determines the status of a given ID without throwing exceptions.
+     *
+     * @param idNumber The ID to be examined.
+     * @return The status code of the given ID, as defined by {@link ParseResult}.
+     */
+    public static byte status(final IdNumber idNumber) {
+        return interpret(idNumber).getStatus();
+    }
+
     /**
      * Checks the validity of a given ID.
      *
@@ -322,7 +458,7 @@ public class NorwegianIdNumber extends LocalIdNumber {
      * @return {@code true} if the given ID is valid by measures of the Norwegian ID definition.
      */
     public static boolean valid(final IdNumber idNumber) {
-        return parse(idNumber.getIdToken()).isValid();
+        return interpret(idNumber).isValid();
     }
 
     /**
@@ -341,7 +477,27 @@ public class NorwegianIdNumber extends LocalIdNumber {
      * @return The birthday of the person this ID is assigned to by the Norwegian ID definition, if retrievable.
      */
     public static Optional<LocalDate> birthday(final IdNumber idNumber) {
-        return parse(idNumber.getIdToken()).getBirthday();
+        return interpret(idNumber).getBirthday();
+    }
+
+    /**
+     * Extracts the birthday of a token without creating any objects, for example to filter or sort many IDs.
+     *
+     * @param token The token to examine.
+     * @return The birthday as epoch day like {@link #birthday(IdNumber)}, or {@link ParseResult#NO_BIRTHDAY} if not retrievable.
+     */
+    public static int birthdayEpochDay(final CharSequence token) {
+        return ParseResult.birthday(parse(token));
+    }
+
+    /**
+     * Extracts the gender of a token without creating any objects.
+     *
+     * @param token The token to examine.
+     * @return The ordinal of the {@link Gender} like {@link #gender(IdNumber)}, see {@link ParseResult#genderCode(long)}.
+     */
+    public static byte genderCode(final CharSequence token) {
+        return ParseResult.genderCode(parse(token));
     }
 
     /**
@@ -360,7 +516,7 @@ public class NorwegianIdNumber extends LocalIdNumber {
      * @return The type of the ID by the Norwegian ID definition, if retrievable.
      */
     public static Optional<Type> type(final IdNumber idNumber) {
-        return parse(idNumber.getIdToken()).getType();
+        return interpret(idNumber).getType();
     }
 
     /**
@@ -372,6 +528,25 @@ public class NorwegianIdNumber extends LocalIdNumber {
         return type(this);
     }
 
+    private Interpreted interpreted() {
+        Interpreted interpreted = this.interpreted;
+        if (interpreted == null) {
+            interpreted = Interpreted.of(parse(idToken));
+            this.interpreted = interpreted;
+        }
+        return interpreted;
+    }
+
+    /**
+     * Encodes this ID as its {@link CompactId}.
+     *
+     * @return The compact encoding of this ID, or {@link CompactId#NONE} if the token is malformed.
+     */
+    @Override
+    protected long encode() {
+        return CompactId.encode(Scheme.NORWAY, idToken);
+    }
+
     @Override
     protected boolean supports(Locale locale) {
         return locale != null && NORWAY.equals(locale.getCountry());
@@ -0,0 +1,424 @@
+package no.kantega.id.pseudonym;
+
+import no.kantega.id.api.Dates;
+import no.kantega.id.api.ParseResult;
+import no.kantega.id.fin.FinnishIdNumber;
+import no.kantega.id.ie.PersonalPublicServiceNumber;
+import no.kantega.id.is.IcelandishIdNumber;
+import no.kantega.id.no.NorwegianIdNumber;
+import no.kantega.id.scheme.Scheme;
+import no.kantega.id.se.SwedishIdNumber;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.EnumSet;
+import java.util.function.ToLongFunction;
+
+/**
+ * Replaces valid ID numbers of one {@link Scheme} by pseudonyms that are valid ID numbers of the same scheme and
+ * format, for example to fill test environments with data that passes all validations. Pseudonyms are created by
+ * a keyed permutation such that they can be reversed by {@link #reveal(CharSequence)} with the same key, and such
+ * that different valid ID numbers never share a pseudonym.
+ * <p>
+ * The permutation is a Feistel network with SipHash-2-4 as round function, operating on the date and the serial
+ * digits of an ID number, where the date is counted as days of a leap year. Results outside of the valid ID numbers
+ * are permuted again, i.e. by cycle walking, until the digits form a valid ID number after recomputing its control
+ * characters. Optionally, a pseudonym {@link Keep keeps} the birthday or the gender of the ID number. Fixed parts
+ * like separators, the century digits and markers of special numbers such as Norwegian D-numbers are not changed,
+ * and a pseudonym is born in the same century as the ID number also where the century is given by the year
+ * together with serial digits, as the Norwegian individual number and the seventh digit of a Danish number.
+ * Danish pseudonyms are valid in lenient mode, but not by the modulus 11 rule. Swedish numbers of ten digits are
+ * resolved relative to the date at which the pseudonymizer is created, see {@link Scheme#parser(LocalDate)}.
+ * <p>
+ * Instances are thread-safe. Every thread permutes tokens in its own scratch buffers, such that a token is not
+ * copied into new arrays or strings before its pseudonym is created.
+ */
+public final class FormatPreservingPseudonymizer {
+
+    /**
+     * The properties of ID numbers that a pseudonym can keep.
+     */
+    public enum Keep {
+        BIRTHDAY, GENDER
+    }
+
+    /**
+     * The required length of a key.
+     */
+    public static final int KEY_LENGTH = 16;
+
+    private static final int ROUNDS = 10;
+
+    private static final int DAYS = 366, YEARS = 100;
+
+    private static final byte[] MONTHS = new byte[DAYS], DAYS_OF_MONTH = new byte[DAYS];
+
+    private static final short[] FIRST_DAYS = new short[13];
+
+    static {
+        int index = 0;
+        for (Month month : Month.values()) {
+            FIRST_DAYS[month.getValue()] = (short) index;
+            for (int day = 1; day <= month.maxLength(); day++, index++) {
+                MONTHS[index] = (byte) month.getValue();
+                DAYS_OF_MONTH[index] = (byte) day;
+            }
+        }
+    }
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private final Scheme scheme;
+
+    private final ToLongFunction<CharSequence> parser;
+
+    private final long key0, key1;
+
+    private final boolean keepBirthday, keepGender;
+
+    private final long tweak;
+
+    /**
+     * Creates a pseudonymizer.
+     *
+     * @param scheme The scheme of the ID numbers.
+     * @param key    The secret key of {@value #KEY_LENGTH} bytes.
+     * @param keep   The properties of ID numbers to keep.
+     */
+    public FormatPreservingPseudonymizer(Scheme scheme, byte[] key, Keep... keep) {
+        if (key.length != KEY_LENGTH) {
+            throw new IllegalArgumentException("Key must have " + KEY_LENGTH + " bytes: " + key.length);
+        }
+        EnumSet<Keep> kept = EnumSet.noneOf(Keep.class);
+        for (Keep k : keep) {
+            kept.add(k);
+        }
+        this.scheme = scheme;
+        this.parser = scheme.parser(LocalDate.now());
+        ByteBuffer buffer = ByteBuffer.wrap(key).order(ByteOrder.LITTLE_ENDIAN);
+        this.key0 = buffer.getLong(0);
+        this.key1 = buffer.getLong(Long.BYTES);
+        this.keepBirthday = kept.contains(Keep.BIRTHDAY);
+        this.keepGender = kept.contains(Keep.GENDER);
+        this.tweak = (keepBirthday ? 1 << 13 : 0) | (keepGender ? 1 << 12 : 0) | scheme.ordinal() << 8;
+    }
+
+    /**
+     * Creates the pseudonym of an ID number.
+     *
+     * @param token The token of a valid ID number.
+     * @return The pseudonym, in the format of the token.
+     * @throws IllegalArgumentException if the token is not a valid ID number of this pseudonymizer's scheme.
+     */
+    public String pseudonymize(CharSequence token) {
+        return require(permute(token, true), token);
+    }
+
+    /**
+     * Restores the ID number of a pseudonym.
+     *
+     * @param pseudonym The pseudonym as created by {@link #pseudonymize(CharSequence)}.
+     * @return The token of the ID number, in the format of the pseudonym.
+     * @throws IllegalArgumentException if the pseudonym is not a valid ID number of this pseudonymizer's scheme.
+     */
+    public String reveal(CharSequence pseudonym) {
+        return require(permute(pseudonym, false), pseudonym);
+    }
+
+    /**
+     * Creates the pseudonyms of a batch of ID numbers.
+     *
+     * @param tokens The tokens of the ID numbers.
+     * @param into   The array of pseudonyms, at least as long as the tokens.
+     * @return The array of pseudonyms, where a token that is {@code null} or not a valid ID number yields
+     * {@code null}.
+     */
+    public String[] pseudonymize(CharSequence[] tokens, String[] into) {
+        return permute(tokens, into, true);
+    }
+
+    /**
+     * Restores the ID numbers of a batch of pseudonyms.
+     *
+     * @param pseudonyms The pseudonyms.
+     * @param into       The array of ID numbers, at least as long as the pseudonyms.
+     * @return The array of ID numbers, where a pseudonym that is {@code null} or not a valid ID number yields
+     * {@code null}.
+     */
+    public String[] reveal(CharSequence[] pseudonyms, String[] into) {
+        return permute(pseudonyms, into, false);
+    }
+
+    /**
+     * Returns the scheme of the ID numbers of this pseudonymizer.
+     *
+     * @return The scheme.
+     */
+    public Scheme getScheme() {
+        return scheme;
+    }
+
+    private String[] permute(CharSequence[] tokens, String[] into, boolean forward) {
+        if (into.length < tokens.length) {
+            throw new IllegalArgumentException("Array of " + into.length + " cannot hold " + tokens.length + " tokens");
+        }
+        for (int i = 0; i < tokens.length; i++) {
+            into[i] = tokens[i] == null ? null : permute(tokens[i], forward);
+        }
+        return into;
+    }
+
+    private String require(String permuted, CharSequence token) {
+        if (permuted == null) {
+            throw new IllegalArgumentException("Not a valid ID number of " + scheme + ": " + token);
+        }
+        return permuted;
+    }
+
+    /**
+     * Maps a token to its pseudonym or back, returning {@code null} if the token is not valid.
+     */
+    private String permute(CharSequence token, boolean forward) {
+        long original = parser.applyAsLong(token);
+        if (!ParseResult.isValid(original)) {
+            return null;
+        }
+        Scratch scratch = SCRATCH.get();
+        char[] chars = scratch.chars(token);
+        CharBuffer view = scratch.views[chars.length];
+        Layout layout = Layout.of(scheme, chars);
+        int date = layout.date(chars);
+        long serials = pow10(layout.serialDigits);
+        boolean dated = !keepBirthday && date >= 0;
+        long size = dated ? YEARS * DAYS * serials : serials;
+        long value = (dated ? date * serials : 0) + digits(chars, layout.serialAt, layout.serialDigits);
+        long tweak = this.tweak | (dated ? 0 : (long) date + 1 << 16);
+        int half = (Long.SIZE - Long.numberOfLeadingZeros(size - 1) + 1) / 2;
+
+        do {
+            value = forward ? encrypt(value, half, tweak) : decrypt(value, half, tweak);
+        } while (value >= size || !accept(chars, view, layout, dated, value, serials, original));
+        return new String(chars);
+    }
+
+    /**
+     * Writes the digits of a value of the domain into the characters, checking if they form a valid ID number
+     * with the kept properties of the original ID number.
+     */
+    private boolean accept(char[] chars, CharSequence view, Layout layout, boolean dated, long value, long serials,
+                           long original) {
+        if (dated) {
+            int date = (int) (value / serials), day = date % DAYS;
+            write(chars, layout.dayAt, 2, DAYS_OF_MONTH[day] + layout.dayOffset);
+            write(chars, layout.monthAt, 2, MONTHS[day] + layout.monthOffset);
+            write(chars, layout.yearAt, 2, date / DAYS);
+        }
+        write(chars, layout.serialAt, layout.serialDigits, value % serials);
+        if (!fillControl(chars)) {
+            return false;
+        }
+        long result = parser.applyAsLong(view);
+        return ParseResult.isValid(result)
+               && (!keepBirthday || ParseResult.birthday(result) == ParseResult.birthday(original))
+               && century(result) == century(original)
+               && (!keepGender || ParseResult.gender(result) == ParseResult.gender(original));
+    }
+
+    private boolean fillControl(char[] chars) {
+        switch (scheme) {
+            case NORWAY:
+                return NorwegianIdNumber.fillControl(chars);
+            case SWEDEN:
+                SwedishIdNumber.fillControl(chars);
+                return true;
+            case FINLAND:
+                FinnishIdNumber.fillControl(chars);
+                return true;
+            case ICELAND:
+                return IcelandishIdNumber.fillControl(chars);
+            case IRELAND:
+                PersonalPublicServiceNumber.fillControl(chars);
+                return true;
+            default:
+                // Danish numbers are not required to have a control digit.
+                return true;
+        }
+    }
+
+    private long encrypt(long value, int half, long tweak) {
+        long mask = (1L << half) - 1, left = value >>> half, right = value & mask;
+        for (int round = 0; round < ROUNDS; round++) {
+            long next = left ^ sipHash(right, tweak | round) & mask;
+            left = right;
+            right = next;
+        }
+        return left << half | right;
+    }
+
+    private long decrypt(long value, int half, long tweak) {
+        long mask = (1L << half) - 1, left = value >>> half, right = value & mask;
+        for (int round = ROUNDS - 1; round >= 0; round--) {
+            long previous = right ^ sipHash(left, tweak | round) & mask;
+            right = left;
+            left = previous;
+        }
+        return left << half | right;
+    }
+
+    /**
+     * SipHash-2-4 of a message of two words with this pseudonymizer's key.
+     */
+    private long sipHash(long message0, long message1) {
+        long v0 = key0 ^ 0x736F6D6570736575L, v1 = key1 ^ 0x646F72616E646F6DL;
+        long v2 = key0 ^ 0x6C7967656E657261L, v3 = key1 ^ 0x7465646279746573L;
+        // Two compression rounds per word including the final word of the message length, then the finalization.
+        for (int i = 0; i < 4; i++) {
+            long m = i == 0 ? message0 : i == 1 ? message1 : i == 2 ? 16L << 56 : 0;
+            if (i < 3) {
+                v3 ^= m;
+            } else {
+                v2 ^= 0xFF;
+            }
+            for (int round = 0, rounds = i < 3 ? 2 : 4; round < rounds; round++) {
+                v0 += v1;
+                v1 = Long.rotateLeft(v1, 13) ^ v0;
+                v0 = Long.rotateLeft(v0, 32);
+                v2 += v3;
+                v3 = Long.rotateLeft(v3, 16) ^ v2;
+                v0 += v3;
+                v3 = Long.rotateLeft(v3, 21) ^ v0;
+                v2 += v1;
+                v1 = Long.rotateLeft(v1, 17) ^ v2;
+                v2 = Long.rotateLeft(v2, 32);
+            }
+            v0 ^= m;
+        }
+        return v0 ^ v1 ^ v2 ^ v3;
+    }
+
+    private static int century(long result) {
+        int birthday = ParseResult.birthday(result);
+        return birthday == ParseResult.NO_BIRTHDAY ? -1 : Dates.year(birthday) / 100;
+    }
+
+    private static long pow10(int exponent) {
+        long power = 1;
+        for (int i = 0; i < exponent; i++) {
+            power *= 10;
+        }
+        return power;
+    }
+
+    private static int digits(char[] chars, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            value = 10 * value + chars[i] - '0';
+        }
+        return value;
+    }
+
+    private static void write(char[] chars, int from, int count, long value) {
+        for (int i = from + count - 1; i >= from; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    /**
+     * The characters of the token that a thread permutes, with one array per length of a valid token as the control
+     * characters are filled in by the length of the array.
+     */
+    private static final class Scratch {
+
+        private static final int MAX_LENGTH = 13;
+
+        private final char[][] chars = new char[MAX_LENGTH + 1][];
+
+        private final CharBuffer[] views = new CharBuffer[MAX_LENGTH + 1];
+
+        Scratch() {
+            for (int length = 0; length <= MAX_LENGTH; length++) {
+                chars[length] = new char[length];
+                views[length] = CharBuffer.wrap(chars[length]);
+            }
+        }
+
+        /**
+         * Copies a valid token into the array of its length.
+         */
+        char[] chars(CharSequence token) {
+            char[] copy = chars[token.length()];
+            for (int i = 0; i < copy.length; i++) {
+                copy[i] = token.charAt(i);
+            }
+            return copy;
+        }
+    }
+
+    /**
+     * The positions of the date and the serial digits of a token, and the offsets that mark special numbers.
+     */
+    private static final class Layout {
+
+        private final int dayAt, monthAt, yearAt, serialAt, serialDigits;
+
+        private final int dayOffset, monthOffset;
+
+        private Layout(int dayAt, int monthAt, int yearAt, int serialAt, int serialDigits, int dayOffset,
+                       int monthOffset) {
+            this.dayAt = dayAt;
+            this.monthAt = monthAt;
+            this.yearAt = yearAt;
+            this.serialAt = serialAt;
+            this.serialDigits = serialDigits;
+            this.dayOffset = dayOffset;
+            this.monthOffset = monthOffset;
+        }
+
+        static Layout of(Scheme scheme, char[] chars) {
+            int day = digits(chars, 0, 2);
+            switch (scheme) {
+                case NORWAY:
+                    if (day > 80) {
+                        // FH-numbers do not contain a date.
+                        return new Layout(-1, -1, -1, 6, 3, 0, 0);
+                    }
+                    int dayOffset = day > 40 ? 40 : 0;
+                    int monthOffset = dayOffset == 0 && digits(chars, 2, 2) > 40 ? 40 : 0;
+                    return new Layout(0, 2, 4, 6, 3, dayOffset, monthOffset);
+                case DENMARK:
+                    // The seventh digit sets the century together with the year.
+                    return new Layout(0, 2, 4, 7, 3, 0, 0);
+                case SWEDEN:
+                    int dateAt = chars.length >= 12 ? 2 : 0;
+                    day = digits(chars, dateAt + 4, 2);
+                    return new Layout(dateAt + 4, dateAt + 2, dateAt, dateAt + 6 + chars.length % 2, 3,
+                        day > 60 ? 60 : 0, 0);
+                case FINLAND:
+                    return new Layout(0, 2, 4, 7, 3, 0, 0);
+                case ICELAND:
+                    return new Layout(0, 2, 4, chars.length == 11 ? 7 : 6, 2, day > 40 ? 40 : 0, 0);
+                default:
+                    return new Layout(-1, -1, -1, 0, 7, 0, 0);
+            }
+        }
+
+        /**
+         * Returns the date of the token as a number of years and days of a leap year, or {@code -1} if the token
+         * does not contain a date, such as Irish numbers.
+         */
+        int date(char[] chars) {
+            if (dayAt < 0) {
+                return -1;
+            }
+            int day = digits(chars, dayAt, 2) - dayOffset, month = digits(chars, monthAt, 2) - monthOffset;
+            if (month < 1 || month > 12 || day < 1 || day > Month.of(month).maxLength()) {
+                return -1;
+            }
+            return digits(chars, yearAt, 2) * DAYS + FIRST_DAYS[month] + day - 1;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package no.kantega.id.pseudonym;
+
+import no.kantega.id.scheme.CompactId;
+import no.kantega.id.scheme.CompactIdCache;
+import no.kantega.id.scheme.Scheme;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+
+/**
+ * Replaces valid ID numbers of one {@link Scheme} by one-way pseudonyms, i.e. the keyed hash of their canonical
+ * token as lower-case hex digits, such that data sets can be joined on pseudonyms without revealing ID numbers.
+ * The canonical token is the token with surrounding whitespace removed as by {@link no.kantega.id.api.IdNumber},
+ * where Swedish numbers are converted to twelve digits, Icelandic numbers lose their hyphen and letters of Irish
+ * numbers are upper-cased. Different spellings of an ID number therefore share a pseudonym.
+ * <p>
+ * A token is first parsed without creating any objects such that invalid tokens are rejected before hashing. The
+ * pseudonyms of recent ID numbers are held in a {@link CompactIdCache} of a fixed number of slots, such that
+ * frequent ID numbers are hashed once and the cache never grows. Each
+ * thread reuses its own {@link Mac} instance.
+ * <p>
+ * Instances are thread-safe.
+ */
+public final class HmacPseudonymizer {
+
+    /**
+     * The hash algorithm used by default.
+     */
+    public static final String DEFAULT_ALGORITHM = "HmacSHA256";
+
+    /**
+     * The number of cache slots used by default.
+     */
+    public static final int DEFAULT_CACHE_SIZE = 1 << 16;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Scheme scheme;
+
+    private final ThreadLocal<Mac> macs;
+
+    private final CompactIdCache<String> cache;
+
+    /**
+     * Creates a pseudonymizer using {@value #DEFAULT_ALGORITHM} and a cache of {@value #DEFAULT_CACHE_SIZE} slots.
+     *
+     * @param scheme The scheme of the ID numbers.
+     * @param key    The secret key.
+     */
+    public HmacPseudonymizer(Scheme scheme, byte[] key) {
+        this(scheme, key, DEFAULT_ALGORITHM, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Creates a pseudonymizer.
+     *
+     * @param scheme    The scheme of the ID numbers.
+     * @param key       The secret key.
+     * @param algorithm The name of the {@link Mac} algorithm.
+     * @param cacheSize The minimum number of cache slots, which is rounded up to a power of two.
+     * @throws IllegalArgumentException if the algorithm is not available or does not accept the key, or if the
+     *                                  cache size is not positive.
+     */
+    public HmacPseudonymizer(Scheme scheme, byte[] key, String algorithm, int cacheSize) {
+        SecretKeySpec secret = new SecretKeySpec(key, algorithm);
+        Mac prototype = mac(secret);
+        this.scheme = scheme;
+        this.macs = ThreadLocal.withInitial(() -> mac(secret));
+        this.macs.set(prototype);
+        this.cache = new CompactIdCache<>(cacheSize);
+    }
+
+    /**
+     * Creates the pseudonym of an ID number.
+     *
+     * @param token The token of a valid ID number.
+     * @return The pseudonym.
+     * @throws IllegalArgumentException if the token is not a valid ID number of this pseudonymizer's scheme.
+     */
+    public String pseudonymize(CharSequence token) {
+        String pseudonym = lookup(token);
+        if (pseudonym == null) {
+            throw new IllegalArgumentException("Not a valid ID number of " + scheme + ": " + token);
+        }
+        return pseudonym;
+    }
+
+    /**
+     * Creates the pseudonyms of a batch of ID numbers.
+     *
+     * @param tokens The tokens of the ID numbers.
+     * @param into   The array of pseudonyms, at least as long as the tokens.
+     * @return The array of pseudonyms, where a token that is {@code null} or not a valid ID number yields
+     * {@code null}.
+     */
+    public String[] pseudonymize(CharSequence[] tokens, String[] into) {
+        if (into.length < tokens.length) {
+            throw new IllegalArgumentException("Array of " + into.length + " cannot hold " + tokens.length + " tokens");
+        }
+        for (int i = 0; i < tokens.length; i++) {
+            into[i] = tokens[i] == null ? null : lookup(tokens[i]);
+        }
+        return into;
+    }
+
+    /**
+     * Returns the scheme of the ID numbers of this pseudonymizer.
+     *
+     * @return The scheme.
+     */
+    public Scheme getScheme() {
+        return scheme;
+    }
+
+    /**
+     * Returns the canonical token of an ID number, i.e. the input of the keyed hash.
+     *
+     * @param scheme The scheme of the token.
+     * @param token  The token of a valid ID number.
+     * @return The canonical token, or {@code null} if the token is not a valid ID number.
+     */
+    public static String canonical(Scheme scheme, CharSequence token) {
+        long compact = CompactId.canonical(scheme, token);
+        return CompactId.isValid(compact) ? CompactId.token(compact) : null;
+    }
+
+    private String lookup(CharSequence token) {
+        long compact = CompactId.canonical(scheme, token);
+        if (!CompactId.isValid(compact)) {
+            return null;
+        }
+        String pseudonym = cache.get(compact);
+        if (pseudonym == null) {
+            pseudonym = hash(CompactId.token(compact));
+            cache.put(compact, pseudonym);
+        }
+        return pseudonym;
+    }
+
+    private String hash(String canonical) {
+        byte[] digest = macs.get().doFinal(canonical.getBytes(StandardCharsets.US_ASCII));
+        char[] hex = new char[2 * digest.length];
+        for (int i = 0; i < digest.length; i++) {
+            hex[2 * i] = HEX[digest[i] >> 4 & 0xF];
+            hex[2 * i + 1] = HEX[digest[i] & 0xF];
+        }
+        return new String(hex);
+    }
+
+    private static Mac mac(SecretKeySpec secret) {
+        try {
+            Mac mac = Mac.getInstance(secret.getAlgorithm());
+            mac.init(secret);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("Cannot create " + secret.getAlgorithm() + " with the given key", e);
+        }
+    }
+}
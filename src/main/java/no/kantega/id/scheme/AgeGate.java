@@ -0,0 +1,148 @@
+package no.kantega.id.scheme;
+
+import no.kantega.id.api.IdNumber;
+import no.kantega.id.api.ParseResult;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * A predicate that accepts valid ID numbers of one {@link Scheme} whose holder has reached a minimum age at a fixed
+ * reference date, for example to check if a person is of age. Unlike {@link IdNumber#age(java.util.function.Function)},
+ * which reads the system clock and computes a {@link java.time.Period} for every ID, a gate converts the minimum age
+ * to the epoch day of the latest eligible birthday once, such that every check only parses the token and compares
+ * two integers.
+ * <p>
+ * A person born on February 29 reaches an age on March 1 of years that are not leap years, as by
+ * {@link LocalDate#minusYears(long)}. Swedish numbers resolve their century relative to the reference date, see
+ * {@link Scheme#parser(LocalDate)}.
+ * <p>
+ * Instances are immutable and thread-safe.
+ */
+public final class AgeGate implements Predicate<CharSequence> {
+
+    private final Scheme scheme;
+
+    private final ToLongFunction<CharSequence> parser;
+
+    private final LocalDate referenceDate;
+
+    private final int years, cutoff;
+
+    private AgeGate(Scheme scheme, int years, LocalDate referenceDate) {
+        if (years < 0) {
+            throw new IllegalArgumentException("Age must not be negative: " + years);
+        }
+        this.scheme = scheme;
+        this.parser = scheme.parser(referenceDate);
+        this.referenceDate = referenceDate;
+        this.years = years;
+        this.cutoff = (int) referenceDate.minusYears(years).toEpochDay();
+    }
+
+    /**
+     * Creates a gate for a minimum age at the current date of a clock. The clock is read once when the gate is
+     * created.
+     *
+     * @param scheme The scheme of the tokens to check.
+     * @param years  The minimum age in years.
+     * @param clock  The clock providing the reference date.
+     * @return A gate for the given age and the current date of the clock.
+     */
+    public static AgeGate atLeast(Scheme scheme, int years, Clock clock) {
+        return new AgeGate(scheme, years, LocalDate.now(clock));
+    }
+
+    /**
+     * Creates a gate for a minimum age at a fixed reference date.
+     *
+     * @param scheme        The scheme of the tokens to check.
+     * @param years         The minimum age in years.
+     * @param referenceDate The date at which the minimum age must be reached.
+     * @return A gate for the given age and reference date.
+     */
+    public static AgeGate atLeast(Scheme scheme, int years, LocalDate referenceDate) {
+        return new AgeGate(scheme, years, referenceDate);
+    }
+
+    /**
+     * Checks if a token is a valid ID number of a person of at least the minimum age.
+     *
+     * @param token The token to check.
+     * @return {@code true} if the token is valid and represents a birthday on or before the cutoff.
+     */
+    @Override
+    public boolean test(CharSequence token) {
+        return accepts(parser.applyAsLong(token));
+    }
+
+    /**
+     * Checks if an ID is a valid ID number of a person of at least the minimum age.
+     *
+     * @param idNumber The ID to check.
+     * @return {@code true} if the ID's token is valid and represents a birthday on or before the cutoff.
+     */
+    public boolean test(IdNumber idNumber) {
+        return test(idNumber.getIdToken());
+    }
+
+    /**
+     * Checks a parse result of this gate's scheme, for example one that was decoded before.
+     *
+     * @param result The parse result.
+     * @return {@code true} if the result is valid and represents a birthday on or before the cutoff.
+     */
+    public boolean accepts(long result) {
+        return accepts(ParseResult.status(result), ParseResult.birthday(result));
+    }
+
+    /**
+     * Checks the status and birthday of a parse result, for example from the columns of a
+     * {@link no.kantega.id.api.DecodedBatch}.
+     *
+     * @param status   The status code of the result.
+     * @param birthday The birthday as epoch day, or {@link ParseResult#NO_BIRTHDAY}.
+     * @return {@code true} if the status is {@link ParseResult#OK} and the birthday is on or before the cutoff.
+     */
+    public boolean accepts(byte status, int birthday) {
+        return status == ParseResult.OK && birthday != ParseResult.NO_BIRTHDAY && birthday <= cutoff;
+    }
+
+    /**
+     * Returns the latest birthday that reaches the minimum age at the reference date.
+     *
+     * @return The cutoff as epoch day.
+     */
+    public int cutoff() {
+        return cutoff;
+    }
+
+    /**
+     * Returns the minimum age of this gate.
+     *
+     * @return The minimum age in years.
+     */
+    public int getYears() {
+        return years;
+    }
+
+    /**
+     * Returns the date at which the minimum age must be reached.
+     *
+     * @return The reference date.
+     */
+    public LocalDate getReferenceDate() {
+        return referenceDate;
+    }
+
+    /**
+     * Returns the scheme of the tokens checked by this gate.
+     *
+     * @return The scheme of this gate.
+     */
+    public Scheme getScheme() {
+        return scheme;
+    }
+}
@@ -0,0 +1,340 @@
+package no.kantega.id.scheme;
+
+import no.kantega.id.api.Dates;
+import no.kantega.id.api.Gender;
+import no.kantega.id.api.ParseResult;
+import no.kantega.id.se.SwedishIdNumber;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Utility for a compact encoding of an ID number of any {@link Scheme} as a primitive {@code long} such that large
+ * numbers of IDs can be held in {@code long[]} columns rather than as objects. The encoding is lossless, i.e. the
+ * canonical token of an ID can be restored by {@link #token(long)}, and also holds the status, gender and birthday
+ * of the ID such that these are read without parsing. From the most significant bit, an encoding consists of:
+ * <ol>
+ * <li>3 bits for the scheme, which is never zero such that {@link #NONE} is not an encoding of any ID.</li>
+ * <li>40 bits for the token, see below.</li>
+ * <li>17 bits for the birthday as days since {@link #MIN_BIRTHDAY} plus one, zero if no birthday is represented,
+ * or all ones if the birthday is out of range and must be read from the token.</li>
+ * <li>2 bits for the ordinal of the {@link Gender}.</li>
+ * <li>2 bits for the status code as defined by {@link ParseResult}.</li>
+ * </ol>
+ * The token is encoded as the number formed by its digits, for Norwegian, Danish and Icelandic ID numbers, where
+ * Icelandic ID numbers have an additional bit for the hyphen. Swedish ID numbers are encoded in the canonical
+ * twelve digit form of {@link SwedishIdNumber#canonical(CharSequence)}. Finnish ID numbers are encoded by their
+ * nine digits, the separator and the control character, and Irish ID numbers by their seven digits and their
+ * upper-cased letters.
+ * <p>
+ * Compared as unsigned numbers, encodings are ordered by their scheme and then by the number encoding their token.
+ */
+public final class CompactId {
+
+    /**
+     * A value that does not encode any ID.
+     */
+    public static final long NONE = 0L;
+
+    /**
+     * The earliest birthday that is encoded, later birthdays are encoded up to the year 2158. Birthdays outside
+     * of this range are read from the token when accessed.
+     */
+    public static final LocalDate MIN_BIRTHDAY = LocalDate.of(1800, 1, 1);
+
+    private static final int STATUS_BITS = 2, GENDER_BITS = 2, BIRTHDAY_BITS = 17, TOKEN_BITS = 40;
+
+    private static final int GENDER_SHIFT = STATUS_BITS;
+
+    private static final int BIRTHDAY_SHIFT = GENDER_SHIFT + GENDER_BITS;
+
+    private static final int TOKEN_SHIFT = BIRTHDAY_SHIFT + BIRTHDAY_BITS;
+
+    private static final int SCHEME_SHIFT = TOKEN_SHIFT + TOKEN_BITS;
+
+    private static final int MIN_EPOCH_DAY = Dates.epochDay(1800, 1, 1);
+
+    private static final int SCHEME_BITS = Long.SIZE - SCHEME_SHIFT;
+
+    private static final int NO_DAYS = 0, OUT_OF_RANGE = (1 << BIRTHDAY_BITS) - 1;
+
+    private static final Scheme[] SCHEMES = Scheme.values();
+
+    private static final Gender[] GENDERS = Gender.values();
+
+    private static final int FINNISH_SEPARATORS = 28, FINNISH_CONTROLS = 36, IRISH_LETTERS = 27;
+
+    private CompactId() {
+    }
+
+    /**
+     * Encodes a token of a given scheme. Swedish tokens of ten digits are resolved relative to the current date.
+     *
+     * @param scheme The scheme of the token.
+     * @param token  The token to encode.
+     * @return The encoding of the token, or {@link #NONE} if the token does not have the layout of the scheme.
+     */
+    public static long encode(Scheme scheme, CharSequence token) {
+        // A Swedish token is parsed and converted relative to the same date.
+        SwedishIdNumber.Parser swedish = scheme == Scheme.SWEDEN ? SwedishIdNumber.parser() : null;
+        long result = swedish != null ? swedish.parse(token) : scheme.parse(token);
+        if (ParseResult.status(result) == ParseResult.BAD_FORMAT) {
+            return NONE;
+        }
+        long encoded;
+        switch (scheme) {
+            case SWEDEN:
+                encoded = swedish.canonical(token);
+                break;
+            case FINLAND:
+                encoded = digits(token, 0, 10) * FINNISH_SEPARATORS + finnishSeparator(token.charAt(6));
+                encoded = encoded * FINNISH_CONTROLS + alphanumeric(token.charAt(10));
+                break;
+            case ICELAND:
+                encoded = 2 * digits(token, 0, token.length()) + (token.length() == 11 ? 1 : 0);
+                break;
+            case IRELAND:
+                encoded = digits(token, 0, 7) * IRISH_LETTERS + letter(token.charAt(7));
+                encoded = encoded * IRISH_LETTERS + (token.length() == 9 ? letter(token.charAt(8)) : 0);
+                break;
+            default:
+                encoded = digits(token, 0, token.length());
+        }
+        int birthday = ParseResult.birthday(result), days;
+        if (birthday == ParseResult.NO_BIRTHDAY) {
+            days = NO_DAYS;
+        } else if (birthday < MIN_EPOCH_DAY || birthday - MIN_EPOCH_DAY + 1 >= OUT_OF_RANGE) {
+            days = OUT_OF_RANGE;
+        } else {
+            days = birthday - MIN_EPOCH_DAY + 1;
+        }
+        return (long) (scheme.ordinal() + 1) << SCHEME_SHIFT
+               | encoded << TOKEN_SHIFT
+               | (long) days << BIRTHDAY_SHIFT
+               | ParseResult.gender(result).ordinal() << GENDER_SHIFT
+               | ParseResult.status(result);
+    }
+
+    /**
+     * Encodes all tokens of a given scheme into a column.
+     *
+     * @param scheme The scheme of the tokens.
+     * @param tokens The tokens to encode.
+     * @param into   The column of encodings, at least as long as the tokens.
+     * @return The column of encodings.
+     * @see #encode(Scheme, CharSequence)
+     */
+    public static long[] encode(Scheme scheme, CharSequence[] tokens, long[] into) {
+        if (into.length < tokens.length) {
+            throw new IllegalArgumentException("Column of " + into.length + " cannot hold " + tokens.length + " tokens");
+        }
+        for (int i = 0; i < tokens.length; i++) {
+            into[i] = encode(scheme, tokens[i]);
+        }
+        return into;
+    }
+
+    /**
+     * Returns the encoding of the canonical spelling of an ID, i.e. of an Icelandic ID number without hyphen, such
+     * that all spellings of an ID have the same canonical encoding.
+     *
+     * @param compact The encoding of an ID.
+     * @return The canonical encoding, or {@link #NONE} for {@link #NONE}.
+     */
+    public static long canonical(long compact) {
+        return compact != NONE && scheme(compact) == Scheme.ICELAND ? compact & ~(1L << TOKEN_SHIFT) : compact;
+    }
+
+    /**
+     * Encodes the canonical spelling of a token of a given scheme, ignoring leading and trailing whitespace like
+     * {@link no.kantega.id.api.IdNumber} does. This is the key by which a token is looked up among other IDs.
+     *
+     * @param scheme The scheme of the token.
+     * @param token  The token to encode.
+     * @return The canonical encoding of the token, or {@link #NONE} if the token does not have the layout of the
+     * scheme.
+     * @see #canonical(long)
+     */
+    public static long canonical(Scheme scheme, CharSequence token) {
+        return canonical(encode(scheme, trim(token)));
+    }
+
+    /**
+     * Returns the scheme of an encoding.
+     *
+     * @param compact The encoding of an ID.
+     * @return The scheme of the ID.
+     * @throws IllegalArgumentException if the value does not encode an ID.
+     */
+    public static Scheme scheme(long compact) {
+        int tag = (int) (compact >>> SCHEME_SHIFT);
+        if (tag == 0 || tag > SCHEMES.length) {
+            throw new IllegalArgumentException("Not a compact ID: " + Long.toHexString(compact));
+        }
+        return SCHEMES[tag - 1];
+    }
+
+    /**
+     * Returns the status code of an encoding.
+     *
+     * @param compact The encoding of an ID.
+     * @return The status code as defined by {@link ParseResult}, {@link ParseResult#BAD_FORMAT} for {@link #NONE}.
+     */
+    public static byte status(long compact) {
+        return compact == NONE ? ParseResult.BAD_FORMAT : (byte) (compact & (1 << STATUS_BITS) - 1);
+    }
+
+    /**
+     * Checks if an encoding represents a valid ID.
+     *
+     * @param compact The encoding of an ID.
+     * @return {@code true} if the ID is valid.
+     */
+    public static boolean isValid(long compact) {
+        return status(compact) == ParseResult.OK;
+    }
+
+    /**
+     * Returns the gender of an encoding.
+     *
+     * @param compact The encoding of an ID.
+     * @return The gender, or {@link Gender#UNKNOWN} if no gender is represented.
+     */
+    public static Gender gender(long compact) {
+        return compact == NONE ? Gender.UNKNOWN : GENDERS[(int) (compact >>> GENDER_SHIFT) & (1 << GENDER_BITS) - 1];
+    }
+
+    /**
+     * Returns the birthday of an encoding.
+     *
+     * @param compact The encoding of an ID.
+     * @return The birthday as epoch day, or {@link ParseResult#NO_BIRTHDAY} if no birthday is represented.
+     */
+    public static int birthday(long compact) {
+        int days = (int) (compact >>> BIRTHDAY_SHIFT) & OUT_OF_RANGE;
+        if (days == NO_DAYS) {
+            return ParseResult.NO_BIRTHDAY;
+        } else if (days == OUT_OF_RANGE) {
+            return ParseResult.birthday(scheme(compact).parse(token(compact)));
+        }
+        return MIN_EPOCH_DAY + days - 1;
+    }
+
+    /**
+     * Returns the gender of an encoding.
+     *
+     * @param compact The encoding of an ID.
+     * @return The gender, if represented.
+     */
+    public static Optional<Gender> optionalGender(long compact) {
+        return ParseResult.optionalGenderOf(gender(compact));
+    }
+
+    /**
+     * Returns the birthday of an encoding.
+     *
+     * @param compact The encoding of an ID.
+     * @return The birthday, if represented.
+     */
+    public static Optional<LocalDate> optionalBirthday(long compact) {
+        return ParseResult.optionalBirthdayOf(birthday(compact));
+    }
+
+    /**
+     * Restores the canonical token of an encoding. The canonical token is the token as it was encoded except for
+     * Swedish tokens, which are restored in the twelve digit form, and Irish tokens, which are restored in upper
+     * case.
+     *
+     * @param compact The encoding of an ID.
+     * @return The canonical token of the ID.
+     * @throws IllegalArgumentException if the value does not encode an ID.
+     */
+    public static String token(long compact) {
+        Scheme scheme = scheme(compact);
+        long encoded = compact << SCHEME_BITS >>> SCHEME_BITS + TOKEN_SHIFT;
+        char[] chars;
+        switch (scheme) {
+            case NORWAY:
+                chars = fill(encoded, new char[11], 0, 11);
+                break;
+            case DENMARK:
+                chars = fill(encoded, new char[10], 0, 10);
+                break;
+            case SWEDEN:
+                chars = fill(encoded, new char[12], 0, 12);
+                break;
+            case ICELAND:
+                if ((encoded & 1) == 0) {
+                    chars = fill(encoded >>> 1, new char[10], 0, 10);
+                } else {
+                    chars = fill(encoded >>> 1, new char[11], 7, 11);
+                    fill((encoded >>> 1) / 10000, chars, 0, 6)[6] = '-';
+                }
+                break;
+            case FINLAND:
+                chars = new char[11];
+                int control = (int) (encoded % FINNISH_CONTROLS);
+                chars[10] = (char) (control < 10 ? '0' + control : 'A' + control - 10);
+                encoded /= FINNISH_CONTROLS;
+                int separator = (int) (encoded % FINNISH_SEPARATORS);
+                chars[6] = separator == 0 ? '+' : separator == 1 ? '-' : (char) ('A' + separator - 2);
+                encoded /= FINNISH_SEPARATORS;
+                fill(encoded / 1000, fill(encoded, chars, 7, 10), 0, 6);
+                break;
+            default:
+                int second = (int) (encoded % IRISH_LETTERS);
+                encoded /= IRISH_LETTERS;
+                chars = fill(encoded / IRISH_LETTERS, new char[second == 0 ? 8 : 9], 0, 7);
+                chars[7] = (char) ('A' + encoded % IRISH_LETTERS - 1);
+                if (second != 0) {
+                    chars[8] = (char) ('A' + second - 1);
+                }
+        }
+        return new String(chars);
+    }
+
+    private static long digits(CharSequence token, int from, int to) {
+        long digits = 0;
+        for (int i = from; i < to; i++) {
+            char c = token.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits = 10 * digits + c - '0';
+            }
+        }
+        return digits;
+    }
+
+    /**
+     * Writes the last digits of a value right-aligned into a range of characters.
+     */
+    private static char[] fill(long value, char[] chars, int from, int to) {
+        for (int i = to - 1; i >= from; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return chars;
+    }
+
+    private static int finnishSeparator(char separator) {
+        return separator == '+' ? 0 : separator == '-' ? 1 : separator - 'A' + 2;
+    }
+
+    private static int alphanumeric(char c) {
+        return c <= '9' ? c - '0' : c - 'A' + 10;
+    }
+
+    private static int letter(char c) {
+        return (c <= 'Z' ? c - 'A' : c - 'a') + 1;
+    }
+
+    private static CharSequence trim(CharSequence token) {
+        int from = 0, to = token.length();
+        while (from < to && token.charAt(from) <= ' ') {
+            from++;
+        }
+        while (to > from && token.charAt(to - 1) <= ' ') {
+            to--;
+        }
+        return from == 0 && to == token.length() ? token : token.subSequence(from, to);
+    }
+}
@@ -0,0 +1,83 @@
+package no.kantega.id.scheme;
+
+/**
+ * A bounded cache of values per ID number, keyed by {@link CompactId}. The cache is direct-mapped, i.e. each ID
+ * number has a single slot given by the hash of its encoding and replaces the entry of that slot, such that a
+ * lookup takes constant time, the cache never grows and no locks are taken. Entries are immutable such that they
+ * are safely shared between threads.
+ * <p>
+ * Instances are thread-safe.
+ *
+ * @param <V> The type of the cached values.
+ */
+public final class CompactIdCache<V> {
+
+    private final Entry<?>[] entries;
+
+    private final int mask;
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param capacity The minimum number of slots, which is rounded up to a power of two.
+     */
+    public CompactIdCache(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity out of range: " + capacity);
+        }
+        this.entries = new Entry<?>[capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1];
+        this.mask = entries.length - 1;
+    }
+
+    /**
+     * Returns the cached value of an ID number.
+     *
+     * @param compact The ID number as encoded by {@link CompactId}.
+     * @return The cached value, or {@code null} if the ID number is not cached.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long compact) {
+        Entry<?> entry = entries[slot(compact)];
+        return entry != null && entry.compact == compact ? (V) entry.value : null;
+    }
+
+    /**
+     * Caches the value of an ID number, replacing the entry of another ID number in the same slot.
+     *
+     * @param compact The ID number as encoded by {@link CompactId}.
+     * @param value   The value to cache.
+     */
+    public void put(long compact, V value) {
+        entries[slot(compact)] = new Entry<>(compact, value);
+    }
+
+    /**
+     * Returns the number of slots of this cache.
+     *
+     * @return The maximum number of cached values.
+     */
+    public int capacity() {
+        return entries.length;
+    }
+
+    private int slot(long compact) {
+        // The finalizer of MurmurHash3, spreading every bit of the encoding over the slot.
+        compact ^= compact >>> 33;
+        compact *= 0xFF51AFD7ED558CCDL;
+        compact ^= compact >>> 33;
+        compact *= 0xC4CEB9FE1A85EC53L;
+        return (int) (compact ^ compact >>> 33) & mask;
+    }
+
+    private static final class Entry<V> {
+
+        private final long compact;
+
+        private final V value;
+
+        private Entry(long compact, V value) {
+            this.compact = compact;
+            this.value = value;
+        }
+    }
+}
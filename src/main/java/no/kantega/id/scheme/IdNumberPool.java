@@ -0,0 +1,129 @@
+package no.kantega.id.scheme;
+
+import no.kantega.id.api.IdNumber;
+
+import java.util.function.Function;
+
+/**
+ * An interning pool of ID numbers of one {@link Scheme}, returning one shared instance for all occurrences of an
+ * ID number, for example for streams of events that refer to the same persons over and over. A token is first
+ * looked up by its exact characters, such that a repeated spelling costs a hash of its characters and a comparison
+ * without parsing it. Other tokens are looked up by their canonical {@link CompactId}, which is computed without
+ * creating any objects, such that another spelling of a pooled ID number costs a parse and a lookup rather than the
+ * creation of an instance. The shared instance has the token of the first occurrence and has computed its encoding,
+ * see {@link no.kantega.id.api.LocalIdNumber}; its birthday and gender are parsed on first use like those of any
+ * other instance.
+ * <p>
+ * The pool is bounded like a {@link CompactIdCache}, i.e. an ID number or a spelling may replace another one, which
+ * then is created anew or looked up by its canonical encoding on its next occurrence. Malformed tokens are not
+ * pooled.
+ * <p>
+ * Instances are thread-safe.
+ *
+ * @param <T> The type of the ID numbers.
+ */
+public final class IdNumberPool<T extends IdNumber> {
+
+    private final Scheme scheme;
+
+    private final Function<String, ? extends T> factory;
+
+    private final CompactIdCache<T> cache;
+
+    private final Spelling<?>[] spellings;
+
+    /**
+     * Creates an empty pool.
+     *
+     * @param scheme   The scheme of the ID numbers.
+     * @param factory  The factory of ID numbers of the scheme, such as {@code NorwegianIdNumber::forId}.
+     * @param capacity The minimum number of ID numbers in the pool.
+     */
+    public IdNumberPool(Scheme scheme, Function<String, ? extends T> factory, int capacity) {
+        this.scheme = scheme;
+        this.factory = factory;
+        this.cache = new CompactIdCache<>(capacity);
+        this.spellings = new Spelling<?>[cache.capacity()];
+    }
+
+    /**
+     * Creates an empty pool of the ID numbers of a scheme as created by {@link Scheme#forId(String)}.
+     *
+     * @param scheme   The scheme of the ID numbers.
+     * @param capacity The minimum number of ID numbers in the pool.
+     * @return The pool.
+     */
+    public static IdNumberPool<IdNumber> of(Scheme scheme, int capacity) {
+        return new IdNumberPool<>(scheme, scheme::forId, capacity);
+    }
+
+    /**
+     * Returns the shared instance of the ID number of a token, creating it if it is not pooled.
+     *
+     * @param token The token of the ID number.
+     * @return The shared ID number, or a new instance if the token is malformed.
+     * @throws IllegalArgumentException if the token is blank.
+     */
+    public T intern(CharSequence token) {
+        int hash = 0;
+        for (int i = 0; i < token.length(); i++) {
+            hash = 31 * hash + token.charAt(i);
+        }
+        int slot = (hash ^ hash >>> 16) & spellings.length - 1;
+        T idNumber = lookup(spellings[slot], token);
+        if (idNumber != null) {
+            return idNumber;
+        }
+        long compact = CompactId.canonical(scheme, token);
+        if (compact == CompactId.NONE) {
+            return factory.apply(token.toString());
+        }
+        idNumber = cache.get(compact);
+        if (idNumber == null) {
+            idNumber = factory.apply(token.toString());
+            // Computes the memoized encoding of a LocalIdNumber before the instance is shared, such that the threads
+            // that get it from the pool only read the encoding when they hash or compare it.
+            idNumber.hashCode();
+            cache.put(compact, idNumber);
+        }
+        spellings[slot] = new Spelling<>(token.toString(), idNumber);
+        return idNumber;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T lookup(Spelling<?> spelling, CharSequence token) {
+        if (spelling == null || spelling.token.length() != token.length()) {
+            return null;
+        }
+        for (int i = 0; i < token.length(); i++) {
+            if (spelling.token.charAt(i) != token.charAt(i)) {
+                return null;
+            }
+        }
+        return (T) spelling.idNumber;
+    }
+
+    /**
+     * Returns the scheme of the ID numbers of this pool.
+     *
+     * @return The scheme.
+     */
+    public Scheme getScheme() {
+        return scheme;
+    }
+
+    /**
+     * A spelling of a pooled ID number, which is immutable such that it is safely shared between threads.
+     */
+    private static final class Spelling<T> {
+
+        private final String token;
+
+        private final T idNumber;
+
+        private Spelling(String token, T idNumber) {
+            this.token = token;
+            this.idNumber = idNumber;
+        }
+    }
+}
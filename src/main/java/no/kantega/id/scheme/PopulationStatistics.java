@@ -0,0 +1,293 @@
+package no.kantega.id.scheme;
+
+import no.kantega.id.api.Dates;
+import no.kantega.id.api.DecodedBatch;
+import no.kantega.id.api.Gender;
+import no.kantega.id.api.ParseResult;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+
+/**
+ * Distributions over a population of ID numbers for data quality reports. The statistics count all tokens by their
+ * status code as defined by {@link ParseResult}, and the valid tokens by gender, birth year, age band and country
+ * specific detail, for example the ordinal of the type of a Norwegian ID number. All counts are kept in primitive
+ * arrays such that adding a token does not create any objects and merging two statistics only adds their arrays.
+ * <p>
+ * Ages are computed at a fixed reference date. The age bands are delimited by ascending age limits, such that the
+ * limits {@code 18, 67} give the bands of ages below 18, from 18 to 66 and from 67. Every limit is
+ * converted to the epoch day of the latest birthday reaching it once, as by {@link AgeGate}, and birthdays after
+ * the reference date count as age zero. Birth years are counted from {@value Dates#FIRST_SHARED_YEAR} to
+ * {@value Dates#LAST_SHARED_YEAR}.
+ * <p>
+ * Instances are not thread-safe. To process a population in parallel, use {@link #collector(Scheme, LocalDate, int...)}
+ * which collects every part of a stream into its own statistics and merges them.
+ */
+public final class PopulationStatistics {
+
+    private static final int STATUSES = 4, GENDERS = Gender.values().length, DETAILS = 256;
+
+    private static final int YEARS = Dates.LAST_SHARED_YEAR - Dates.FIRST_SHARED_YEAR + 1;
+
+    private final LocalDate referenceDate;
+
+    private final int[] ageLimits, cutoffs;
+
+    private final long[] statuses = new long[STATUSES];
+
+    private final long[] genders = new long[GENDERS];
+
+    private final long[] birthYears = new long[YEARS];
+
+    private final long[] ageBands;
+
+    private final long[] details = new long[DETAILS];
+
+    /**
+     * Creates empty statistics.
+     *
+     * @param referenceDate The date at which ages are computed.
+     * @param ageLimits     The ascending, non-negative ages that delimit the age bands.
+     */
+    public PopulationStatistics(LocalDate referenceDate, int... ageLimits) {
+        checkAgeLimits(ageLimits);
+        this.referenceDate = referenceDate;
+        this.ageLimits = ageLimits.clone();
+        this.cutoffs = new int[ageLimits.length];
+        for (int i = 0; i < ageLimits.length; i++) {
+            cutoffs[i] = (int) referenceDate.minusYears(ageLimits[i]).toEpochDay();
+        }
+        this.ageBands = new long[ageLimits.length + 1];
+    }
+
+    /**
+     * Creates a collector of the statistics of a stream of tokens, which can be a parallel stream.
+     *
+     * @param scheme        The scheme of the tokens.
+     * @param referenceDate The date at which ages are computed.
+     * @param ageLimits     The ascending, non-negative ages that delimit the age bands.
+     * @return A collector of the statistics of the tokens.
+     */
+    public static Collector<CharSequence, PopulationStatistics, PopulationStatistics> collector(
+        Scheme scheme, LocalDate referenceDate, int... ageLimits) {
+        checkAgeLimits(ageLimits);
+        ToLongFunction<CharSequence> parser = scheme.parser(referenceDate);
+        int[] limits = ageLimits.clone();
+        return Collector.of(() -> new PopulationStatistics(referenceDate, limits),
+            (statistics, token) -> statistics.add(parser.applyAsLong(token)),
+            PopulationStatistics::merge,
+            Collector.Characteristics.IDENTITY_FINISH, Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * Creates a collector of the statistics of a stream of tokens at the current date of a clock. The clock is read
+     * once when the collector is created.
+     *
+     * @param scheme    The scheme of the tokens.
+     * @param clock     The clock providing the reference date.
+     * @param ageLimits The ascending, non-negative ages that delimit the age bands.
+     * @return A collector of the statistics of the tokens.
+     */
+    public static Collector<CharSequence, PopulationStatistics, PopulationStatistics> collector(
+        Scheme scheme, Clock clock, int... ageLimits) {
+        return collector(scheme, LocalDate.now(clock), ageLimits);
+    }
+
+    private static void checkAgeLimits(int[] ageLimits) {
+        for (int i = 0; i < ageLimits.length; i++) {
+            if (ageLimits[i] < 0 || i > 0 && ageLimits[i] <= ageLimits[i - 1]) {
+                throw new IllegalArgumentException("Age limits must be ascending and not negative: "
+                    + Arrays.toString(ageLimits));
+            }
+        }
+    }
+
+    /**
+     * Adds a parse result.
+     *
+     * @param result The parse result.
+     */
+    public void add(long result) {
+        add(ParseResult.status(result), ParseResult.genderCode(result), ParseResult.birthday(result),
+            ParseResult.detail(result));
+    }
+
+    /**
+     * Adds the decoded results of the last batch of some columns, which must not omit any column.
+     *
+     * @param batch The decoded columns.
+     */
+    public void add(DecodedBatch batch) {
+        byte[] status = batch.status(), gender = batch.gender(), detail = batch.detail();
+        int[] birthday = batch.birthday();
+        if (status == null || gender == null || birthday == null || detail == null) {
+            throw new IllegalArgumentException("All columns are required");
+        }
+        for (int i = 0, size = batch.size(); i < size; i++) {
+            add(status[i], gender[i], birthday[i], detail[i] & 0xFF);
+        }
+    }
+
+    private void add(byte status, byte gender, int birthday, int detail) {
+        statuses[status]++;
+        if (status != ParseResult.OK) {
+            return;
+        }
+        genders[gender]++;
+        if (detail < DETAILS) {
+            details[detail]++;
+        }
+        if (birthday != ParseResult.NO_BIRTHDAY) {
+            int year = Dates.year(birthday) - Dates.FIRST_SHARED_YEAR;
+            if (year >= 0 && year < YEARS) {
+                birthYears[year]++;
+            }
+            int band = 0;
+            while (band < cutoffs.length && birthday <= cutoffs[band]) {
+                band++;
+            }
+            ageBands[band]++;
+        }
+    }
+
+    /**
+     * Adds the counts of other statistics with the same reference date and age limits to these statistics.
+     *
+     * @param other The statistics to add.
+     * @return These statistics.
+     */
+    public PopulationStatistics merge(PopulationStatistics other) {
+        if (!referenceDate.equals(other.referenceDate) || !Arrays.equals(ageLimits, other.ageLimits)) {
+            throw new IllegalArgumentException("Statistics differ in reference date or age limits");
+        }
+        add(statuses, other.statuses);
+        add(genders, other.genders);
+        add(birthYears, other.birthYears);
+        add(ageBands, other.ageBands);
+        add(details, other.details);
+        return this;
+    }
+
+    private static void add(long[] counts, long[] other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other[i];
+        }
+    }
+
+    /**
+     * Returns the number of all tokens.
+     *
+     * @return The number of added tokens.
+     */
+    public long total() {
+        long total = 0;
+        for (long count : statuses) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Returns the number of valid tokens.
+     *
+     * @return The number of tokens with status {@link ParseResult#OK}.
+     */
+    public long valid() {
+        return statuses[ParseResult.OK];
+    }
+
+    /**
+     * Returns the number of invalid tokens.
+     *
+     * @return The number of tokens with any other status than {@link ParseResult#OK}.
+     */
+    public long invalid() {
+        return total() - valid();
+    }
+
+    /**
+     * Returns the number of tokens with a given status.
+     *
+     * @param status The status code as defined by {@link ParseResult}.
+     * @return The number of tokens with the given status.
+     */
+    public long count(byte status) {
+        return status >= 0 && status < STATUSES ? statuses[status] : 0;
+    }
+
+    /**
+     * Returns the number of valid tokens of a gender.
+     *
+     * @param gender The gender.
+     * @return The number of valid tokens of the gender, where {@link Gender#UNKNOWN} counts tokens without gender.
+     */
+    public long count(Gender gender) {
+        return genders[gender.ordinal()];
+    }
+
+    /**
+     * Returns the number of valid tokens with a birthday in a given year.
+     *
+     * @param year The birth year.
+     * @return The number of valid tokens born in the year, or {@code 0} if the year is not counted.
+     */
+    public long birthYearCount(int year) {
+        int index = year - Dates.FIRST_SHARED_YEAR;
+        return index >= 0 && index < YEARS ? birthYears[index] : 0;
+    }
+
+    /**
+     * Returns the number of valid tokens with a birthday in an age band.
+     *
+     * @param band The index of the band, from {@code 0} for ages below the first limit to the number of limits for
+     *             ages of at least the last limit.
+     * @return The number of valid tokens in the age band.
+     */
+    public long ageBandCount(int band) {
+        return band >= 0 && band < ageBands.length ? ageBands[band] : 0;
+    }
+
+    /**
+     * Returns the number of valid tokens with a given country specific detail.
+     *
+     * @param detail The detail, for example the ordinal of a {@link no.kantega.id.no.NorwegianIdNumber.Type}.
+     * @return The number of valid tokens with the detail.
+     */
+    public long detailCount(int detail) {
+        return detail >= 0 && detail < DETAILS ? details[detail] : 0;
+    }
+
+    /**
+     * Returns the date at which ages are computed.
+     *
+     * @return The reference date.
+     */
+    public LocalDate getReferenceDate() {
+        return referenceDate;
+    }
+
+    /**
+     * Returns the ages that delimit the age bands.
+     *
+     * @return A copy of the age limits.
+     */
+    public int[] getAgeLimits() {
+        return ageLimits.clone();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("PopulationStatistics{total=").append(total());
+        for (byte status = 0; status < STATUSES; status++) {
+            builder.append(", ").append(ParseResult.name(status)).append('=').append(statuses[status]);
+        }
+        for (Gender gender : Gender.values()) {
+            builder.append(", ").append(gender).append('=').append(genders[gender.ordinal()]);
+        }
+        builder.append(", ageBands=").append(Arrays.toString(ageBands));
+        return builder.append('}').toString();
+    }
+}
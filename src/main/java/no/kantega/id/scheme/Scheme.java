@@ -0,0 +1,189 @@
+package no.kantega.id.scheme;
+
+import no.kantega.id.api.IdNumber;
+import no.kantega.id.api.ParseResult;
+import no.kantega.id.dk.DanishIdNumber;
+import no.kantega.id.fin.FinnishIdNumber;
+import no.kantega.id.ie.PersonalPublicServiceNumber;
+import no.kantega.id.is.IcelandishIdNumber;
+import no.kantega.id.no.NorwegianIdNumber;
+import no.kantega.id.se.SwedishIdNumber;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * The ID number schemes supported by this library. A scheme connects the parse function of a country with its
+ * {@link IdNumber} implementation such that tokens of any country can be handled in a uniform way.
+ */
+public enum Scheme {
+
+    /**
+     * Norwegian <i>f&oslash;dselsnummer</i>, see {@link NorwegianIdNumber}.
+     */
+    NORWAY("NO", NorwegianIdNumber::parse, NorwegianIdNumber::forId),
+
+    /**
+     * Danish CPR numbers, see {@link DanishIdNumber}.
+     */
+    DENMARK("DK", DanishIdNumber::parse, DanishIdNumber::forId),
+
+    /**
+     * Swedish <i>personnummer</i>, see {@link SwedishIdNumber}.
+     */
+    SWEDEN("SE", SwedishIdNumber::parse, SwedishIdNumber::forId),
+
+    /**
+     * Finnish personal identity codes, see {@link FinnishIdNumber}.
+     */
+    FINLAND("FI", FinnishIdNumber::parse, FinnishIdNumber::forId),
+
+    /**
+     * Icelandic <i>kennit&ouml;lur</i>, see {@link IcelandishIdNumber}.
+     */
+    ICELAND("IS", IcelandishIdNumber::parse, IcelandishIdNumber::forId),
+
+    /**
+     * Irish Personal Public Service Numbers, see {@link PersonalPublicServiceNumber}.
+     */
+    IRELAND("IE", PersonalPublicServiceNumber::parse, PersonalPublicServiceNumber::forId);
+
+    private static final Scheme[] SCHEMES = values();
+
+    private final String country;
+
+    private final ToLongFunction<CharSequence> parser;
+
+    private final Function<String, ? extends IdNumber> factory;
+
+    Scheme(String country, ToLongFunction<CharSequence> parser, Function<String, ? extends IdNumber> factory) {
+        this.country = country;
+        this.parser = parser;
+        this.factory = factory;
+    }
+
+    /**
+     * Returns the ISO 3166 code of the country issuing this scheme's ID numbers.
+     *
+     * @return The country code.
+     */
+    public String getCountry() {
+        return country;
+    }
+
+    /**
+     * Returns the bit of this scheme in a set of schemes represented as {@code int}.
+     *
+     * @return The bit of this scheme.
+     * @see #setOf(int)
+     */
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * Parses a token by the parse function of this scheme's country.
+     *
+     * @param token The token to parse.
+     * @return The parse result as described by {@link ParseResult}.
+     */
+    public long parse(CharSequence token) {
+        return parser.applyAsLong(token);
+    }
+
+    /**
+     * Extracts the birthday of a token without creating any objects.
+     *
+     * @param token The token to examine.
+     * @return The birthday as epoch day, or {@link ParseResult#NO_BIRTHDAY} if not retrievable.
+     */
+    public int birthdayEpochDay(CharSequence token) {
+        return ParseResult.birthday(parse(token));
+    }
+
+    /**
+     * Extracts the gender of a token without creating any objects.
+     *
+     * @param token The token to examine.
+     * @return The ordinal of the gender, see {@link ParseResult#genderCode(long)}.
+     */
+    public byte genderCode(CharSequence token) {
+        return ParseResult.genderCode(parse(token));
+    }
+
+    /**
+     * Returns the parse function of this scheme's country.
+     *
+     * @return The parse function.
+     */
+    public ToLongFunction<CharSequence> parser() {
+        return parser;
+    }
+
+    /**
+     * Returns a parse function of this scheme's country that resolves birthdays relative to a fixed reference date.
+     * Only Swedish numbers depend on the reference date, see {@link SwedishIdNumber#parser(LocalDate)}; other
+     * schemes return their usual parse function.
+     *
+     * @param referenceDate The reference date.
+     * @return The parse function for the reference date.
+     */
+    public ToLongFunction<CharSequence> parser(LocalDate referenceDate) {
+        return this == SWEDEN ? SwedishIdNumber.parser(referenceDate)::parse : parser;
+    }
+
+    /**
+     * Checks if a given ID is valid by this scheme.
+     *
+     * @param idNumber The ID to validate.
+     * @return {@code true} if the ID's token is valid by this scheme.
+     */
+    public boolean valid(IdNumber idNumber) {
+        return ParseResult.isValid(parse(idNumber.getIdToken()));
+    }
+
+    /**
+     * Creates an ID number of this scheme's country.
+     *
+     * @param idToken The token to represent.
+     * @return The ID number of this scheme.
+     */
+    public IdNumber forId(String idToken) {
+        return factory.apply(idToken);
+    }
+
+    /**
+     * Returns the scheme of a country.
+     *
+     * @param country The ISO 3166 code of a country.
+     * @return The scheme of the country.
+     * @throws IllegalArgumentException if no scheme is supported for the country.
+     */
+    public static Scheme forCountry(String country) {
+        for (Scheme scheme : SCHEMES) {
+            if (scheme.country.equalsIgnoreCase(country)) {
+                return scheme;
+            }
+        }
+        throw new IllegalArgumentException("No scheme for country " + country);
+    }
+
+    /**
+     * Converts a set of schemes represented as {@code int} to a set of schemes.
+     *
+     * @param bits The bits of the schemes of the set.
+     * @return The set of schemes.
+     */
+    public static Set<Scheme> setOf(int bits) {
+        Set<Scheme> schemes = EnumSet.noneOf(Scheme.class);
+        for (Scheme scheme : SCHEMES) {
+            if ((bits & scheme.bit()) != 0) {
+                schemes.add(scheme);
+            }
+        }
+        return schemes;
+    }
+}
@@ -0,0 +1,127 @@
+package no.kantega.id.scheme;
+
+import no.kantega.id.api.IdNumber;
+import no.kantega.id.api.ParseResult;
+
+import java.util.Set;
+
+/**
+ * Detects the schemes of a token of unknown origin. A single pass over the token determines its shape, i.e. its
+ * length and the positions of characters that are not digits. The shape narrows the candidates down to the schemes
+ * with a matching layout such that only their parse functions need to run:
+ * <ul>
+ * <li>Ten digits: {@link Scheme#DENMARK}, {@link Scheme#SWEDEN} and {@link Scheme#ICELAND}.</li>
+ * <li>Eleven digits: {@link Scheme#NORWAY}.</li>
+ * <li>Six digits, a separator and four characters: {@link Scheme#FINLAND}, {@link Scheme#SWEDEN} if the separator
+ * is {@code -} or {@code +} and the rest are digits, and {@link Scheme#ICELAND} if the separator is {@code -}.</li>
+ * <li>Twelve digits, or eight digits, a separator and four digits: {@link Scheme#SWEDEN}.</li>
+ * <li>Seven digits followed by one or two letters: {@link Scheme#IRELAND}.</li>
+ * </ul>
+ * Tokens are examined as is, i.e. without the cleanup applied when creating an {@link IdNumber}.
+ */
+public final class SchemeDetector {
+
+    private static final Scheme[] SCHEMES = Scheme.values();
+
+    private static final int MIN_LENGTH = 8, MAX_LENGTH = 13, SEPARATOR = 6;
+
+    private static final int TEN_DIGITS = Scheme.DENMARK.bit() | Scheme.SWEDEN.bit() | Scheme.ICELAND.bit();
+
+    private SchemeDetector() {
+    }
+
+    /**
+     * Returns the schemes of which a token has the layout, regardless of its checksum and date.
+     *
+     * @param token The token to examine.
+     * @return The bits of the candidate schemes, see {@link Scheme#bit()}.
+     */
+    public static int candidates(CharSequence token) {
+        int length = token.length();
+        if (length < MIN_LENGTH || length > MAX_LENGTH) {
+            return 0;
+        }
+        // Bit i is set if the character at index i is not a digit.
+        int nonDigits = 0;
+        for (int i = 0; i < length; i++) {
+            char c = token.charAt(i);
+            if (c < '0' || c > '9') {
+                nonDigits |= 1 << i;
+            }
+        }
+        switch (length) {
+            case 8:
+            case 9:
+                return (nonDigits & 0x7F) == 0 && isLetters(token, 7, length) ? Scheme.IRELAND.bit() : 0;
+            case 10:
+                return nonDigits == 0 ? TEN_DIGITS : 0;
+            case 11:
+                if (nonDigits == 0) {
+                    return Scheme.NORWAY.bit();
+                }
+                return separated(token, nonDigits);
+            case 12:
+                return nonDigits == 0 ? Scheme.SWEDEN.bit() : 0;
+            default:
+                return nonDigits == 1 << 8 && isSwedishSeparator(token.charAt(8)) ? Scheme.SWEDEN.bit() : 0;
+        }
+    }
+
+    /**
+     * Returns the schemes by which a token is valid, i.e. has a matching layout, date and checksum.
+     *
+     * @param token The token to examine.
+     * @return The bits of the valid schemes, see {@link Scheme#bit()}.
+     */
+    public static int detect(CharSequence token) {
+        int candidates = candidates(token), valid = 0;
+        while (candidates != 0) {
+            Scheme scheme = SCHEMES[Integer.numberOfTrailingZeros(candidates)];
+            if (ParseResult.isValid(scheme.parse(token))) {
+                valid |= scheme.bit();
+            }
+            candidates &= candidates - 1;
+        }
+        return valid;
+    }
+
+    /**
+     * Returns the schemes by which a given ID is valid.
+     *
+     * @param idNumber The ID to examine.
+     * @return The set of schemes by which the ID is valid, empty if the ID is not valid by any scheme.
+     */
+    public static Set<Scheme> schemes(IdNumber idNumber) {
+        return Scheme.setOf(detect(idNumber.getIdToken()));
+    }
+
+    private static int separated(CharSequence token, int nonDigits) {
+        if ((nonDigits & ~(1 << SEPARATOR | 1 << 10)) != 0) {
+            return 0;
+        }
+        int candidates = Scheme.FINLAND.bit();
+        if ((nonDigits & 1 << 10) == 0) {
+            char c = token.charAt(SEPARATOR);
+            if (c == '-') {
+                candidates |= Scheme.SWEDEN.bit() | Scheme.ICELAND.bit();
+            } else if (c == '+') {
+                candidates |= Scheme.SWEDEN.bit();
+            }
+        }
+        return candidates;
+    }
+
+    private static boolean isSwedishSeparator(char c) {
+        return c == '-' || c == '+';
+    }
+
+    private static boolean isLetters(CharSequence token, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = token.charAt(i);
+            if ((c < 'A' || c > 'Z') && (c < 'a' || c > 'z')) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,19 +1,22 @@
 package no.kantega.id.se;
 
+import no.kantega.id.api.Dates;
+import no.kantega.id.api.DecodedBatch;
 import no.kantega.id.api.Gender;
 import no.kantega.id.api.IdNumber;
 import no.kantega.id.api.LocalIdNumber;
+import no.kantega.id.api.ParseResult;
+import no.kantega.id.scheme.CompactId;
+import no.kantega.id.scheme.Scheme;
 
-import java.time.DateTimeException;
+import java.time.Clock;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
 
-import static java.lang.Character.getNumericValue;
-import static java.lang.Integer.parseInt;
-import static java.time.LocalDate.now;
-import static java.time.temporal.ChronoField.*;
-import static java.util.Optional.empty;
 import static no.kantega.id.api.Gender.FEMALE;
 import static no.kantega.id.api.Gender.MALE;
 
@@ -24,7 +27,7 @@ import static no.kantega.id.api.Gender.MALE;
  * The hyphen is represented by:
  * <ol>
  * <li>A {@code -} sign: For people under the age of 100</li>
- * <li>A {@code ß} sign: For people that have reached the age of 100</li>
+ * <li>A {@code +} sign: For people that have reached the age of 100</li>
  * </ol>
  * In order to avoid a change of the ID number by reaching a certain age, some authorities use 12 digit numbers instead
  * which represent the birthday in the format <i>YYYYMMDD</i> without using a hyphen. Both formats are understood
@@ -59,6 +62,16 @@ public class SwedishIdNumber extends LocalIdNumber {
      */
     public static final String VALID_FORMAT_SE = "(\\d{6}|\\d{8})(\\+|\\-?)(\\d{4})";
 
+    /**
+     * The detail of a {@link ParseResult} for a <i>samordningsnummer</i> (coordination number).
+     */
+    public static final int COORDINATION_NUMBER = 1;
+
+    /**
+     * The parser for the current date of the system clock, which is replaced once the date has changed.
+     */
+    private static volatile Parser today = new Parser(System.currentTimeMillis());
+
     /**
      * Creates a new Swedish ID with the given locale.
      *
@@ -78,6 +91,20 @@ public class SwedishIdNumber extends LocalIdNumber {
         super(idToken, SWEDEN);
     }
 
+    /**
+     * Encodes this ID as its {@link CompactId}, such that numbers of ten and twelve digits are equal. The century of
+     * a ten digit number is resolved relative to the date at which the encoding is first needed, and an instance
+     * keeps that encoding. Two instances of a ten digit number are therefore unequal if they were first compared or
+     * hashed on either side of the day on which a holder born in the earlier century turns 100. Use twelve digit
+     * numbers as keys where this matters.
+     *
+     * @return The compact encoding of this ID, or {@link CompactId#NONE} if the token is malformed.
+     */
+    @Override
+    protected long encode() {
+        return CompactId.encode(Scheme.SWEDEN, idToken);
+    }
+
     @Override
     public boolean supports(Locale locale) {
         return SWEDEN.getCountry().equals(locale.getCountry());
@@ -115,12 +142,7 @@ public class SwedishIdNumber extends LocalIdNumber {
      * for the Swedish National Id number
      */
     public static boolean valid(IdNumber idNumber) {
-        String id = idNumber.getIdToken();
-        if (id.matches(VALID_FORMAT_SE)) {
-            Interpreter interpreter = new Interpreter(id);
-            return interpreter.checkControl() && interpreter.validateDate();
-        }
-        return false;
+        return ParseResult.isValid(parse(idNumber.getIdToken()));
     }
 
     /**
@@ -133,154 +155,436 @@ public class SwedishIdNumber extends LocalIdNumber {
     }
 
     /**
-     * Extracts the gender from the given person number following the
-     * specification for the Swedish idNumber
+     * Decodes a batch of tokens into columns of primitive arrays without creating any objects per token.
+     * Centuries are resolved relative to the current date.
      *
-     * @param idNumber The IdNumber to consider
-     * @return The optional gender associated to the given idNumber or empty optional.
-     * Optional.empty() in case it is not possible to calculate the Date
+     * @param tokens The tokens to decode.
+     * @param into   The columns to fill.
+     * @return The filled columns.
      */
-    public static Optional<Gender> gender(IdNumber idNumber) {
-        try {
-            return Optional.of(new Interpreter(idNumber.getIdToken()).calculateGender());
-        } catch (NumberFormatException e) {
-            return empty();
-        }
+    public static DecodedBatch decode(CharSequence[] tokens, DecodedBatch into) {
+        return parser().decode(tokens, into);
     }
 
     /**
-     * Determines the gender of the person that holds this ID number, if applicable.
+     * Decodes a batch of tokens into columns of primitive arrays without creating any objects per token.
+     * Centuries are resolved relative to the current date.
      *
-     * @return The optional gender of the person holding this ID number.
+     * @param tokens The tokens to decode.
+     * @param into   The columns to fill.
+     * @return The filled columns.
      */
-    public Optional<Gender> gender() {
-        return gender(this);
+    public static DecodedBatch decode(List<? extends CharSequence> tokens, DecodedBatch into) {
+        return parser().decode(tokens, into);
     }
 
     /**
-     * Calculates the birth date of the given IdNumber
+     * Determines the status of a given ID without throwing exceptions.
      *
-     * @param idNumber The IdNumber to consider
-     * @return The birth date associated to the given IdNumber
+     * @param idNumber The ID to be examined.
+     * @return The status code of the given ID, as defined by {@link ParseResult}.
      */
-    public static Optional<LocalDate> birthday(IdNumber idNumber) {
-        try {
-            return Optional.of(new Interpreter(idNumber.getIdToken()).generateBday());
-        } catch (NumberFormatException nfe) {
-            return empty();
+    public static byte status(IdNumber idNumber) {
+        return ParseResult.status(parse(idNumber.getIdToken()));
+    }
+
+    /**
+     * Parses a token without creating any objects or throwing exceptions. Tokens are accepted in the format of
+     * {@link #VALID_FORMAT_SE}. The detail of the result is {@link #COORDINATION_NUMBER} for a
+     * <i>samordningsnummer</i>, where 60 is added to the day of birth.
+     * <p>
+     * The century of a ten digit number is resolved relative to the current date of the system clock, as by the
+     * parser of {@link #parser()}. Use a {@link Parser} to resolve numbers relative to a fixed reference date, for
+     * example such that the results of a long batch do not change at midnight.
+     *
+     * @param token The token to parse.
+     * @return The parse result as described by {@link ParseResult}.
+     */
+    public static long parse(CharSequence token) {
+        return parser().parse(token);
+    }
+
+    /**
+     * Converts a token to the canonical twelve digit form <i>YYYYMMDDNNNC</i>, resolving the century of a ten
+     * digit number relative to the current date of the system clock. The canonical form of a <i>samordningsnummer</i>
+     * keeps the day with 60 added.
+     *
+     * @param token The token to convert.
+     * @return The twelve digits as a number, or {@code -1} if the token does not have the layout of a Swedish ID
+     * number.
+     */
+    public static long canonical(CharSequence token) {
+        return parser().canonical(token);
+    }
+
+    /**
+     * Returns a parser that resolves the century of ten digit numbers relative to the current date of the system
+     * clock in the default time zone. The parser is shared until the date changes, such that this method does not
+     * create any objects on most calls, but a caller that uses the parser for longer keeps the date at which it was
+     * returned.
+     *
+     * @return A parser for the current date.
+     */
+    public static Parser parser() {
+        Parser parser = today;
+        if (System.currentTimeMillis() >= parser.expiry) {
+            parser = new Parser(System.currentTimeMillis());
+            today = parser;
         }
+        return parser;
     }
 
     /**
-     * Determines the birth day of the person associated to this ID number, if applicable.
+     * Creates a parser that resolves the century of ten digit numbers relative to the current date of a clock.
+     * The clock is read once when the parser is created.
      *
-     * @return The optional birth day of the person holding this ID number.
+     * @param clock The clock providing the reference date.
+     * @return A parser for the current date of the given clock.
      */
-    public Optional<LocalDate> birthday() {
-        return birthday(this);
+    public static Parser parser(Clock clock) {
+        return new Parser(LocalDate.now(clock));
     }
 
-    private static class Interpreter {
-
-        int day, month, year, control, personal;
-
-        int[] digits = new int[9];
-
-        Interpreter(String token) {
-            control = parseInt(token.substring(token.length() - 1));
-            personal = parseInt(token.substring(token.length() - 4, token.length() - 1));
-
-            switch (token.length()) {
-                case 11:
-                    boolean olderThan100 = token.charAt(7) == '+';
-                    day = parseInt(token.substring(4, 6));
-                    month = parseInt(token.substring(2, 4));
-                    year = parseInt(token.substring(0, 2));
-                    manageYear(olderThan100);
-                    fillDigits(token, 0, 1);
-                    break;
-                case 12:
-                    day = parseInt(token.substring(6, 8));
-                    month = parseInt(token.substring(4, 6));
-                    year = parseInt(token.substring(0, 4));
-                    fillDigits(token, 2, 2);
-                    break;
-                default:
-                    day = parseInt(token.substring(4, 6));
-                    month = parseInt(token.substring(2, 4));
-                    year = parseInt(token.substring(0, 2));
-                    manageYear(false);
-                    fillDigits(token, 0, 0);
-                    break;
-            }
-            day = manageCoordinationNumber(day);
+    /**
+     * Creates a parser that resolves the century of ten digit numbers relative to a fixed reference date.
+     *
+     * @param referenceDate The reference date.
+     * @return A parser for the given reference date.
+     */
+    public static Parser parser(LocalDate referenceDate) {
+        return new Parser(referenceDate);
+    }
+
+    /**
+     * A parser of Swedish ID numbers with a fixed reference date. A ten digit number only contains the last two
+     * digits of the birth year, such that the century is resolved as the latest birthday that is not after the
+     * reference date, or a century earlier if the number contains a {@code +} sign. Unlike the static methods of
+     * {@link SwedishIdNumber}, which follow the date of the system clock, a parser yields the same result for
+     * a number independently of when or for how long it is used.
+     */
+    public static final class Parser {
+
+        private final int reference;
+
+        // The time at which a parser for the current date expires, or Long.MAX_VALUE for a fixed reference date.
+        private final long expiry;
+
+        private Parser(LocalDate referenceDate) {
+            this.reference = reference(referenceDate);
+            this.expiry = Long.MAX_VALUE;
         }
 
-        LocalDate generateBday() {
-            return LocalDate.of(year, month, day);
+        private Parser(long now) {
+            ZoneId zone = ZoneId.systemDefault();
+            LocalDate date = Instant.ofEpochMilli(now).atZone(zone).toLocalDate();
+            this.reference = reference(date);
+            this.expiry = date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
         }
 
-        Gender calculateGender() {
-            return personal % 2 == 0 ? FEMALE : MALE;
+        /**
+         * Parses a token without creating any objects or throwing exceptions.
+         *
+         * @param token The token to parse.
+         * @return The parse result as described by {@link ParseResult}.
+         * @see SwedishIdNumber#parse(CharSequence)
+         */
+        public long parse(CharSequence token) {
+            return SwedishIdNumber.parse(token, reference);
         }
 
-        boolean validateDate() {
-            try {
-                generateBday();
-            } catch (DateTimeException dte) {
-                return false;
-            }
-            return true;
+        /**
+         * Converts a token to the canonical twelve digit form relative to this parser's reference date.
+         *
+         * @param token The token to convert.
+         * @return The twelve digits as a number, or {@code -1} if the token is malformed.
+         * @see SwedishIdNumber#canonical(CharSequence)
+         */
+        public long canonical(CharSequence token) {
+            return SwedishIdNumber.canonical(token, reference);
         }
 
-        boolean checkControl() {
-            int sum = 0;
-            for (int i = 0; i < digits.length; i++) {
-                int product = digits[i] * (((i + 1) % 2) + 1);
-                sum += product % 10 + product / 10;
-            }
-            return control == (10 - (sum % 10)) % 10;
+        /**
+         * Extracts the birthday of a token without creating any objects.
+         *
+         * @param token The token to examine.
+         * @return The birthday as epoch day relative to this parser's reference date, or
+         * {@link ParseResult#NO_BIRTHDAY} if not retrievable.
+         * @see SwedishIdNumber#birthdayEpochDay(CharSequence)
+         */
+        public int birthdayEpochDay(CharSequence token) {
+            return ParseResult.birthday(parse(token));
         }
 
-        private void manageYear(boolean olderThen100) {
-            int actulYearModulo100 = now().get(YEAR) % 100;
-            if (actulYearModulo100 > year) {
-                lastCentury(actulYearModulo100);
-            } else if (actulYearModulo100 < year) {
-                currentCentury(actulYearModulo100);
-            } else if (now().get(MONTH_OF_YEAR) > month) {
-                lastCentury(actulYearModulo100);
-            } else if (now().get(MONTH_OF_YEAR) < month) {
-                currentCentury(actulYearModulo100);
-            } else if (now().get(DAY_OF_MONTH) > day) {
-                lastCentury(actulYearModulo100);
-            } else if (now().get(DAY_OF_MONTH) < day) {
-                currentCentury(actulYearModulo100);
-            } else {
-                lastCentury(actulYearModulo100);
-            }
+        /**
+         * Extracts the gender of a token without creating any objects.
+         *
+         * @param token The token to examine.
+         * @return The ordinal of the {@link Gender}, see {@link ParseResult#genderCode(long)}.
+         * @see SwedishIdNumber#genderCode(CharSequence)
+         */
+        public byte genderCode(CharSequence token) {
+            return ParseResult.genderCode(parse(token));
+        }
+
+        /**
+         * Decodes a batch of tokens into columns of primitive arrays without creating any objects per token.
+         *
+         * @param tokens The tokens to decode.
+         * @param into   The columns to fill.
+         * @return The filled columns.
+         */
+        public DecodedBatch decode(CharSequence[] tokens, DecodedBatch into) {
+            return into.decode(tokens, this::parse);
+        }
+
+        /**
+         * Decodes a batch of tokens into columns of primitive arrays without creating any objects per token.
+         *
+         * @param tokens The tokens to decode.
+         * @param into   The columns to fill.
+         * @return The filled columns.
+         */
+        public DecodedBatch decode(List<? extends CharSequence> tokens, DecodedBatch into) {
+            return into.decode(tokens, this::parse);
+        }
+
+        /**
+         * Checks the validity of a given ID.
+         *
+         * @param idNumber The ID to be examined.
+         * @return {@code true} if the given ID is a valid Swedish ID number.
+         */
+        public boolean valid(IdNumber idNumber) {
+            return ParseResult.isValid(parse(idNumber.getIdToken()));
+        }
+
+        /**
+         * Determines the status of a given ID without throwing exceptions.
+         *
+         * @param idNumber The ID to be examined.
+         * @return The status code of the given ID, as defined by {@link ParseResult}.
+         */
+        public byte status(IdNumber idNumber) {
+            return ParseResult.status(parse(idNumber.getIdToken()));
+        }
+
+        /**
+         * Extracts the gender of the given ID.
+         *
+         * @param idNumber The ID to be examined.
+         * @return The gender of the given ID, if retrievable.
+         */
+        public Optional<Gender> gender(IdNumber idNumber) {
+            return ParseResult.optionalGender(parse(idNumber.getIdToken()));
+        }
+
+        /**
+         * Extracts the birthday of the given ID.
+         *
+         * @param idNumber The ID to be examined.
+         * @return The birthday of the given ID relative to this parser's reference date, if retrievable.
+         */
+        public Optional<LocalDate> birthday(IdNumber idNumber) {
+            return ParseResult.optionalBirthday(parse(idNumber.getIdToken()));
+        }
+    }
 
-            if (olderThen100) {
-                year += 100;
+    /**
+     * Sets the control digit of a token in any of the accepted formats from its other digits, for example to create
+     * a valid number from a modified one.
+     *
+     * @param token The characters of a token in the format of {@link #VALID_FORMAT_SE}, of which the last one is
+     *              replaced.
+     */
+    public static void fillControl(char[] token) {
+        int sum = 0;
+        for (int i = token.length - 10 + (token.length % 2 == 0 ? 0 : -1), checked = 0; checked < 9; i++) {
+            if (token[i] < '0' || token[i] > '9') {
+                continue;
             }
+            int product = (token[i] - '0') * ((checked + 1) % 2 + 1);
+            sum += product % 10 + product / 10;
+            checked++;
         }
+        token[token.length - 1] = (char) ('0' + (10 - sum % 10) % 10);
+    }
+
+    /**
+     * Encodes a date as an integer of the form <i>YYYYMMDD</i> such that dates can be compared as integers.
+     */
+    private static int reference(LocalDate date) {
+        return 10000 * date.getYear() + 100 * date.getMonthValue() + date.getDayOfMonth();
+    }
 
-        private void currentCentury(int actulYearModulo100) {
-            year += now().get(YEAR) - actulYearModulo100;
+    /**
+     * Resolves the century of a two digit year as the latest birthday that is not after the reference date, or a
+     * century earlier for a number with a {@code +} sign.
+     */
+    private static int fullYear(int shortYear, int month, int day, boolean plus, int reference) {
+        int year = shortYear + reference / 1000000 * 100;
+        if (10000 * year + 100 * month + day > reference) {
+            year -= 100;
         }
+        return plus ? year - 100 : year;
+    }
 
-        private void lastCentury(int actulYearModulo100) {
-            year += now().get(YEAR) - actulYearModulo100 - 100;
+    /**
+     * Converts a token to the canonical form, checking only the layout that a parse checks, such that a token that
+     * was parsed before is not parsed again.
+     */
+    private static long canonical(CharSequence token, int reference) {
+        int length = token.length();
+        if (length < 10 || length > 13) {
+            return -1;
+        }
+        int dateLength = length < 12 ? 6 : 8;
+        boolean separated = length % 2 != 0;
+        long digits = 0;
+        for (int i = 0; i < length; i++) {
+            char c = token.charAt(i);
+            if (separated && i == dateLength) {
+                if (c != '-' && c != '+') {
+                    return -1;
+                }
+            } else if (c < '0' || c > '9') {
+                return -1;
+            } else {
+                digits = 10 * digits + c - '0';
+            }
+        }
+        if (dateLength == 8) {
+            return digits;
         }
+        int date = (int) (digits / 10000), day = date % 100, month = date / 100 % 100;
+        int year = fullYear(date / 10000, month, day > 31 ? day - 60 : day, separated && token.charAt(6) == '+',
+            reference);
+        return year / 100 * 10000000000L + digits;
+    }
 
-        private int manageCoordinationNumber(int dayOfBirth) {
-            return dayOfBirth > 31 ? dayOfBirth - 60 : dayOfBirth;
+    private static long parse(CharSequence token, int reference) {
+        int length = token.length();
+        int dateLength;
+        switch (length) {
+            case 10:
+            case 11:
+                dateLength = 6;
+                break;
+            case 12:
+            case 13:
+                dateLength = 8;
+                break;
+            default:
+                return ParseResult.MALFORMED;
+        }
+        boolean separated = length % 2 != 0;
+        if (separated && token.charAt(dateLength) != '-' && token.charAt(dateLength) != '+') {
+            return ParseResult.MALFORMED;
         }
 
-        private void fillDigits(String id, int start1, int start2) {
-            for (int i = 0; i < digits.length; i++) {
-                digits[i] = getNumericValue(i < 6 ? id.charAt(start1 + i) : id.charAt(start2 + i));
+        int date = 0, sum = 0, control = 0, serial = 0;
+        for (int i = 0, position = 0; i < length; i++) {
+            if (separated && i == dateLength) {
+                continue;
+            }
+            int digit = token.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return ParseResult.MALFORMED;
             }
+            if (position < dateLength) {
+                date = 10 * date + digit;
+            } else if (position < dateLength + 3) {
+                serial = digit;
+            } else {
+                control = digit;
+            }
+            int checked = position - (dateLength - 6);
+            if (checked >= 0 && checked < 9) {
+                int product = digit * ((checked + 1) % 2 + 1);
+                sum += product % 10 + product / 10;
+            }
+            position++;
+        }
+
+        int day = date % 100, month = date / 100 % 100, year = date / 10000;
+        int detail = 0;
+        if (day > 31) {
+            day -= 60;
+            detail = COORDINATION_NUMBER;
+        }
+        if (dateLength == 6) {
+            year = fullYear(year, month, day, separated && token.charAt(dateLength) == '+', reference);
         }
+
+        Gender gender = serial % 2 == 0 ? FEMALE : MALE;
+        int birthday = Dates.toEpochDay(year, month, day);
+        if (birthday == Dates.NO_DATE) {
+            return ParseResult.of(ParseResult.BAD_DATE, gender, ParseResult.NO_BIRTHDAY, detail);
+        }
+        byte status = control == (10 - sum % 10) % 10 ? ParseResult.OK : ParseResult.BAD_CHECKSUM;
+        return ParseResult.of(status, gender, birthday, detail);
+    }
+
+    /**
+     * Extracts the gender from the given person number following the
+     * specification for the Swedish idNumber
+     *
+     * @param idNumber The IdNumber to consider
+     * @return The optional gender associated to the given idNumber or empty optional.
+     * Optional.empty() in case it is not possible to calculate the Date
+     */
+    public static Optional<Gender> gender(IdNumber idNumber) {
+        return ParseResult.optionalGender(parse(idNumber.getIdToken()));
+    }
+
+    /**
+     * Determines the gender of the person that holds this ID number, if applicable.
+     *
+     * @return The optional gender of the person holding this ID number.
+     */
+    public Optional<Gender> gender() {
+        return gender(this);
+    }
+
+    /**
+     * Calculates the birth date of the given IdNumber
+     *
+     * @param idNumber The IdNumber to consider
+     * @return The birth date associated to the given IdNumber
+     */
+    public static Optional<LocalDate> birthday(IdNumber idNumber) {
+        return ParseResult.optionalBirthday(parse(idNumber.getIdToken()));
+    }
+
+    /**
+     * Extracts the birthday of a token without creating any objects, for example to filter or sort many IDs. The
+     * century of a ten digit number is resolved relative to the current date as by {@link #parse(CharSequence)};
+     * use {@link Parser#birthdayEpochDay(CharSequence)} of a {@link #parser(LocalDate)} to filter relative to a
+     * fixed reference date.
+     *
+     * @param token The token to examine.
+     * @return The birthday as epoch day like {@link #birthday(IdNumber)}, or {@link ParseResult#NO_BIRTHDAY} if not retrievable.
+     */
+    public static int birthdayEpochDay(CharSequence token) {
+        return ParseResult.birthday(parse(token));
+    }
+
+    /**
+     * Extracts the gender of a token without creating any objects. Unlike the birthday, the gender does not depend
+     * on the date at which the token is parsed.
+     *
+     * @param token The token to examine.
+     * @return The ordinal of the {@link Gender} like {@link #gender(IdNumber)}, see {@link ParseResult#genderCode(long)}.
+     */
+    public static byte genderCode(CharSequence token) {
+        return ParseResult.genderCode(parse(token));
+    }
+
+    /**
+     * Determines the birth day of the person associated to this ID number, if applicable.
+     *
+     * @return The optional birth day of the person holding this ID number.
+     */
+    public Optional<LocalDate> birthday() {
+        return birthday(this);
     }
 }
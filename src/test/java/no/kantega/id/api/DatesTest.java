@@ -0,0 +1,80 @@
+package no.kantega.id.api;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class DatesTest {
+
+    @Test
+    public void epochDayMatchesLocalDate() {
+        for (LocalDate date = LocalDate.of(1799, 1, 1); date.getYear() < 2101; date = date.plusDays(1)) {
+            assertThat(Dates.isValid(date.getYear(), date.getMonthValue(), date.getDayOfMonth()), is(true));
+            assertThat(Dates.epochDay(date.getYear(), date.getMonthValue(), date.getDayOfMonth()),
+                is((int) date.toEpochDay()));
+            assertThat(Dates.year((int) date.toEpochDay()), is(date.getYear()));
+            assertThat(Dates.toEpochDay(date.getYear(), date.getMonthValue(), date.getDayOfMonth()),
+                is((int) date.toEpochDay()));
+        }
+    }
+
+    @Test
+    public void nonExistingDatesAreInvalid() {
+        assertThat(Dates.isValid(1900, 2, 29), is(false));
+        assertThat(Dates.isValid(2000, 2, 29), is(true));
+        assertThat(Dates.isValid(2001, 4, 31), is(false));
+        assertThat(Dates.isValid(2001, 13, 1), is(false));
+        assertThat(Dates.isValid(2001, 0, 1), is(false));
+        assertThat(Dates.isValid(2001, 1, 0), is(false));
+        assertThat(Dates.isValid(2001, 1, 32), is(false));
+    }
+
+    @Test
+    public void yearOfDistantEpochDays() {
+        for (LocalDate date : new LocalDate[]{LocalDate.of(-1, 12, 31), LocalDate.of(0, 1, 1), LocalDate.of(1, 1, 1),
+            LocalDate.of(1600, 12, 31), LocalDate.of(2400, 1, 1), LocalDate.of(9999, 12, 31)}) {
+            assertThat(Dates.year((int) date.toEpochDay()), is(date.getYear()));
+        }
+    }
+
+    @Test
+    public void nonExistingDatesHaveNoEpochDay() {
+        assertThat(Dates.toEpochDay(1900, 2, 29), is(Dates.NO_DATE));
+        assertThat(Dates.toEpochDay(2000, 2, 29), is((int) LocalDate.of(2000, 2, 29).toEpochDay()));
+        assertThat(Dates.toEpochDay(2001, 4, 31), is(Dates.NO_DATE));
+        assertThat(Dates.toEpochDay(2001, 13, 1), is(Dates.NO_DATE));
+        assertThat(Dates.toEpochDay(2001, 0, 1), is(Dates.NO_DATE));
+        assertThat(Dates.toEpochDay(2001, 1, 0), is(Dates.NO_DATE));
+        assertThat(Dates.toEpochDay(2001, 1, 32), is(Dates.NO_DATE));
+        assertThat(Dates.toEpochDay(1700, 2, 29), is(Dates.NO_DATE));
+        assertThat(Dates.toEpochDay(2400, 2, 29), is((int) LocalDate.of(2400, 2, 29).toEpochDay()));
+    }
+
+    @Test
+    public void datesOfSharedYearsAreShared() {
+        int epochDay = (int) LocalDate.of(1985, 4, 2).toEpochDay();
+        assertThat(Dates.localDate(epochDay), is(LocalDate.of(1985, 4, 2)));
+        assertThat(Dates.localDate(epochDay), sameInstance(Dates.localDate(epochDay)));
+        assertThat(Dates.optionalDate(epochDay), is(Optional.of(LocalDate.of(1985, 4, 2))));
+        assertThat(Dates.optionalDate(epochDay), sameInstance(Dates.optionalDate(epochDay)));
+        assertThat(Dates.optionalDate(epochDay).get(), sameInstance(Dates.localDate(epochDay)));
+
+        int first = Dates.epochDay(Dates.FIRST_SHARED_YEAR, 1, 1), last = Dates.epochDay(Dates.LAST_SHARED_YEAR, 12, 31);
+        assertThat(Dates.localDate(first), sameInstance(Dates.localDate(first)));
+        assertThat(Dates.localDate(last), sameInstance(Dates.localDate(last)));
+    }
+
+    @Test
+    public void datesOutsideSharedYearsAreCreated() {
+        int epochDay = Dates.epochDay(Dates.LAST_SHARED_YEAR + 1, 1, 1);
+        assertThat(Dates.localDate(epochDay), is(LocalDate.of(Dates.LAST_SHARED_YEAR + 1, 1, 1)));
+        assertThat(Dates.localDate(epochDay), not(sameInstance(Dates.localDate(epochDay))));
+        assertThat(Dates.optionalDate(Dates.epochDay(1700, 1, 1)), is(Optional.of(LocalDate.of(1700, 1, 1))));
+    }
+}
@@ -0,0 +1,69 @@
+package no.kantega.id.api;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.function.ToLongFunction;
+
+import static no.kantega.id.api.Gender.FEMALE;
+import static no.kantega.id.api.Gender.UNKNOWN;
+import static no.kantega.id.api.ParseResult.BAD_DATE;
+import static no.kantega.id.api.ParseResult.MALFORMED;
+import static no.kantega.id.api.ParseResult.NO_BIRTHDAY;
+import static no.kantega.id.api.ParseResult.OK;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+
+public class DecodedBatchTest {
+
+    private static final ToLongFunction<CharSequence> PARSER = token -> {
+        switch (token.toString()) {
+            case "valid":
+                return ParseResult.of(OK, FEMALE, 100, 2);
+            case "undated":
+                return ParseResult.of(BAD_DATE, UNKNOWN, NO_BIRTHDAY, 0);
+            default:
+                return MALFORMED;
+        }
+    };
+
+    @Test
+    public void batchIsDecodedIntoColumns() {
+        DecodedBatch batch = new DecodedBatch(4).decode(new String[]{"valid", "undated", "?"}, PARSER);
+        assertThat(batch.size(), is(3));
+        assertThat(batch.status()[0], is(OK));
+        assertThat(batch.gender()[0], is((byte) FEMALE.ordinal()));
+        assertThat(batch.birthday()[0], is(100));
+        assertThat(batch.detail()[0], is((byte) 2));
+        assertThat(batch.status()[1], is(BAD_DATE));
+        assertThat(batch.birthday()[1], is(NO_BIRTHDAY));
+        assertThat(batch.status()[2], is(ParseResult.BAD_FORMAT));
+        assertThat(batch.gender()[2], is((byte) UNKNOWN.ordinal()));
+    }
+
+    @Test
+    public void listIsDecodedLikeArray() {
+        String[] tokens = {"?", "valid"};
+        DecodedBatch array = new DecodedBatch(2).decode(tokens, PARSER);
+        DecodedBatch list = new DecodedBatch(2).decode(Arrays.asList(tokens), PARSER);
+        assertThat(list.status(), is(array.status()));
+        assertThat(list.gender(), is(array.gender()));
+        assertThat(list.birthday(), is(array.birthday()));
+        assertThat(list.detail(), is(array.detail()));
+    }
+
+    @Test
+    public void omittedColumnsAreNotFilled() {
+        int[] birthday = new int[3];
+        DecodedBatch batch = new DecodedBatch(null, null, birthday, null).decode(new String[]{"valid"}, PARSER);
+        assertThat(batch.capacity(), is(3));
+        assertThat(batch.status(), is(nullValue()));
+        assertThat(birthday[0], is(100));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void batchMustNotExceedCapacity() {
+        new DecodedBatch(1).decode(new String[]{"valid", "valid"}, PARSER);
+    }
+}
@@ -4,6 +4,7 @@ import org.junit.Test;
 
 import java.time.LocalDate;
 import java.time.Period;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.function.Function;
 
@@ -34,6 +35,47 @@ public class IdNumberTest {
         assertExceptionWithInvalidArgument(IdNumber::new, " ");
     }
 
+    @Test
+    public void idNumbers_AreEqualByClassAndToken() {
+        assertThat(new IdNumber(" 123 "), is(new IdNumber("123")));
+        assertThat(new IdNumber(" 123 ").hashCode(), is(new IdNumber("123").hashCode()));
+        assertThat(new IdNumber("123").equals(new IdNumber("124")), is(false));
+        assertThat(new IdNumber("123").equals(new IdNumber("123") {
+        }), is(false));
+        assertThat(new IdNumber("123").compareTo(new IdNumber("124")) < 0, is(true));
+        assertThat(new IdNumber("123").compareTo(new IdNumber(" 123")), is(0));
+    }
+
+    @Test
+    public void encoding_IsMemoizedForAllValues() {
+        int[] calls = new int[1];
+        class Encoded extends LocalIdNumber {
+            private final long encoding;
+
+            Encoded(String idToken, long encoding) {
+                super(idToken, Locale.ROOT);
+                this.encoding = encoding;
+            }
+
+            @Override
+            protected boolean supports(Locale locale) {
+                return true;
+            }
+
+            @Override
+            protected long encode() {
+                calls[0]++;
+                return encoding;
+            }
+        }
+        Encoded id = new Encoded("123", 0L);
+        assertThat(id.hashCode(), is(new Encoded("123", 0L).hashCode()));
+        assertThat(id.hashCode(), is("123".hashCode()));
+        assertThat(calls[0], is(2));
+        assertThat(new Encoded("124", -1L), is(new Encoded("125", -1L)));
+        assertThat(new Encoded("124", Long.MIN_VALUE).equals(new Encoded("124", Long.MAX_VALUE)), is(false));
+    }
+
     @Test
     public void idToken_IsTrimmedFrom_BothEnds() {
         assertThat(new IdNumber(" 123  ").getIdToken(), is("123"));
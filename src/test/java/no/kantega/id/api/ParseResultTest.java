@@ -0,0 +1,77 @@
+package no.kantega.id.api;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static no.kantega.id.api.Gender.FEMALE;
+import static no.kantega.id.api.Gender.MALE;
+import static no.kantega.id.api.Gender.UNKNOWN;
+import static no.kantega.id.api.ParseResult.BAD_CHECKSUM;
+import static no.kantega.id.api.ParseResult.BAD_FORMAT;
+import static no.kantega.id.api.ParseResult.MALFORMED;
+import static no.kantega.id.api.ParseResult.NO_BIRTHDAY;
+import static no.kantega.id.api.ParseResult.OK;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class ParseResultTest {
+
+    @Test
+    public void resultContainsAllParts() {
+        long result = ParseResult.of(OK, FEMALE, -2000, 65535);
+        assertThat(ParseResult.status(result), is(OK));
+        assertThat(ParseResult.isValid(result), is(true));
+        assertThat(ParseResult.gender(result), is(FEMALE));
+        assertThat(ParseResult.birthday(result), is(-2000));
+        assertThat(ParseResult.detail(result), is(65535));
+        assertThat(ParseResult.optionalGender(result), is(Optional.of(FEMALE)));
+        assertThat(ParseResult.optionalBirthday(result), is(Optional.of(LocalDate.ofEpochDay(-2000))));
+    }
+
+    @Test
+    public void statusCanBeReplaced() {
+        long result = ParseResult.withStatus(ParseResult.of(OK, FEMALE, 10, 3), BAD_CHECKSUM);
+        assertThat(ParseResult.status(result), is(BAD_CHECKSUM));
+        assertThat(ParseResult.isValid(result), is(false));
+        assertThat(ParseResult.gender(result), is(FEMALE));
+        assertThat(ParseResult.birthday(result), is(10));
+        assertThat(ParseResult.detail(result), is(3));
+    }
+
+    @Test
+    public void malformedResultHasNoInformation() {
+        assertThat(ParseResult.status(MALFORMED), is(BAD_FORMAT));
+        assertThat(ParseResult.gender(MALFORMED), is(UNKNOWN));
+        assertThat(ParseResult.birthday(MALFORMED), is(NO_BIRTHDAY));
+        assertThat(ParseResult.optionalGender(MALFORMED), is(Optional.empty()));
+        assertThat(ParseResult.optionalBirthday(MALFORMED), is(Optional.empty()));
+    }
+
+    @Test
+    public void statusHasName() {
+        assertThat(ParseResult.name(OK), is("OK"));
+        assertThat(ParseResult.name(BAD_CHECKSUM), is("BAD_CHECKSUM"));
+        assertThat(ParseResult.name((byte) 42), is("UNKNOWN(42)"));
+    }
+
+    @Test
+    public void optionalsAreShared() {
+        long result = ParseResult.of(OK, MALE, 5000, 0);
+        assertThat(ParseResult.optionalGender(result), is(Optional.of(MALE)));
+        assertThat(ParseResult.optionalGender(result), sameInstance(ParseResult.optionalGender(result)));
+        assertThat(ParseResult.optionalGenderOf(UNKNOWN), is(Optional.empty()));
+        assertThat(ParseResult.optionalBirthday(result), is(Optional.of(LocalDate.ofEpochDay(5000))));
+        assertThat(ParseResult.optionalBirthday(result), sameInstance(ParseResult.optionalBirthday(result)));
+        assertThat(ParseResult.optionalBirthdayOf(NO_BIRTHDAY), is(Optional.empty()));
+    }
+
+    @Test
+    public void genderCodeIsOrdinal() {
+        assertThat(ParseResult.genderCode(ParseResult.of(OK, FEMALE, 0, 0)), is((byte) FEMALE.ordinal()));
+        assertThat(ParseResult.genderCode(ParseResult.of(OK, MALE, -1, 65535)), is((byte) MALE.ordinal()));
+        assertThat(ParseResult.genderCode(MALFORMED), is((byte) UNKNOWN.ordinal()));
+    }
+}
@@ -1,12 +1,18 @@
 package no.kantega.id.dk;
 
+import no.kantega.id.api.IdNumber;
+import no.kantega.id.api.ParseResult;
 import org.junit.Test;
 
+import java.time.LocalDate;
 import java.util.Locale;
+import java.util.Optional;
 
 import static java.util.Locale.FRANCE;
 import static junit.framework.TestCase.assertFalse;
 import static no.kantega.id.dk.DanishIdNumber.forId;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertTrue;
 
 
@@ -24,6 +30,16 @@ public class DanishIdNumberGeneralTest {
         DanishIdNumber.forId(VALID_ID, FRANCE);
     }
 
+    @Test
+    public void resultOfZero_IsMemoized() {
+        assertThat(DanishIdNumber.parse("0101700001"), is(0L));
+        DanishIdNumber idNumber = forId("0101700001");
+        for (int i = 0; i < 2; i++) {
+            assertThat(DanishIdNumber.status(idNumber), is(ParseResult.OK));
+            assertThat(DanishIdNumber.birthday(idNumber), is(Optional.of(LocalDate.of(1970, 1, 1))));
+        }
+    }
+
     @Test
     public void countryDenmark_IsValidLocale() {
         final Locale localeDK = new Locale("da", "DK");
@@ -33,4 +49,44 @@ public class DanishIdNumberGeneralTest {
 
 
 
+    @Test
+    public void status_IsReportedWithoutException() {
+        assertThat(DanishIdNumber.status(forId(VALID_ID)), is(ParseResult.OK));
+        assertThat(DanishIdNumber.status(forId("3002801234")), is(ParseResult.BAD_DATE));
+        assertThat(DanishIdNumber.status(forId("12x3498762")), is(ParseResult.BAD_FORMAT));
+        assertThat(ParseResult.status(DanishIdNumber.parseModulus11("0101010131")), is(ParseResult.BAD_CHECKSUM));
+        assertThat(ParseResult.status(DanishIdNumber.parseModulus11("0101010139")), is(ParseResult.OK));
+    }
+
+    @Test
+    public void nonExistingDate_IsNotValidModulus11() {
+        assertFalse(forId("3102801230").isValid(DanishIdNumber::validateModulus11));
+    }
+
+    @Test
+    public void decodedResult_ServesLenientAndStrictMode() {
+        long result = DanishIdNumber.parse("0101010131");
+        assertThat(ParseResult.status(result), is(ParseResult.OK));
+        assertThat(DanishIdNumber.centuryDigit(result), is(0));
+        assertFalse(DanishIdNumber.passesModulus11(result));
+        assertThat(ParseResult.status(DanishIdNumber.modulus11(result)), is(ParseResult.BAD_CHECKSUM));
+        assertThat(DanishIdNumber.modulus11(DanishIdNumber.parse("0101010139")), is(DanishIdNumber.parse("0101010139")));
+        assertThat(DanishIdNumber.centuryDigit(DanishIdNumber.parse("0101019139")), is(9));
+    }
+
+    @Test
+    public void instance_DecodesLikePlainIdNumber() {
+        for (String token : new String[]{VALID_ID, "0101010131", "3002801234", "12x3498762"}) {
+            DanishIdNumber danish = forId(token);
+            IdNumber plain = IdNumber.forId(token);
+            for (int i = 0; i < 2; i++) {
+                assertThat(danish.isValid(DanishIdNumber::valid), is(plain.isValid(DanishIdNumber::valid)));
+                assertThat(danish.isValid(DanishIdNumber::validateModulus11), is(plain.isValid(DanishIdNumber::validateModulus11)));
+                assertThat(danish.gender(DanishIdNumber::gender), is(plain.gender(DanishIdNumber::gender)));
+                assertThat(danish.birthday(DanishIdNumber::birthday), is(plain.birthday(DanishIdNumber::birthday)));
+                assertThat(DanishIdNumber.status(danish), is(DanishIdNumber.status(plain)));
+            }
+        }
+    }
+
 }
@@ -1,5 +1,6 @@
 package no.kantega.id.fin;
 
+import no.kantega.id.api.ParseResult;
 import org.junit.Test;
 
 import java.time.LocalDate;
@@ -11,6 +12,7 @@ import static java.util.Locale.FRANCE;
 import static java.util.Optional.empty;
 import static no.kantega.id.api.Gender.FEMALE;
 import static no.kantega.id.api.Gender.MALE;
+import static no.kantega.id.api.Gender.UNKNOWN;
 import static no.kantega.id.fin.FinnishIdNumber.forId;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertFalse;
@@ -59,6 +61,15 @@ public class FinnishIdNumberTest {
         assertThat(forId(VALID_MALE_ID).gender(FinnishIdNumber::gender).get(), is(MALE));
     }
 
+    @Test
+    public void primitiveAccessors_MatchOptionals() {
+        assertThat(FinnishIdNumber.genderCode(VALID_FEMALE_ID), is((byte) FEMALE.ordinal()));
+        assertThat(FinnishIdNumber.genderCode(VALID_MALE_ID), is((byte) MALE.ordinal()));
+        assertThat(FinnishIdNumber.genderCode("270274-XXXN"), is((byte) UNKNOWN.ordinal()));
+        assertThat(FinnishIdNumber.birthdayEpochDay(VALID_MALE_ID), is((int) LocalDate.of(1890, 2, 1).toEpochDay()));
+        assertThat(FinnishIdNumber.birthdayEpochDay("300274-885N"), is(ParseResult.NO_BIRTHDAY));
+    }
+
     @Test
     public void invalidFormat_GivesEmptyGender() {
         assertThat(forId("270274-XXXN").gender(FinnishIdNumber::gender), is(empty()));
@@ -103,4 +114,29 @@ public class FinnishIdNumberTest {
         assertThat(forId("231211A5182").birthday(FinnishIdNumber::birthday).get().getYear(), is(2011));
     }
 
+    @Test
+    public void centuryIs_TakenFromSeparatorsIntroducedIn2023() {
+        for (char separator : "YXWVU".toCharArray()) {
+            assertThat(forId("270274" + separator + "885N").birthday(FinnishIdNumber::birthday).get().getYear(), is(1974));
+        }
+        for (char separator : "BCDEF".toCharArray()) {
+            assertThat(forId("231211" + separator + "5182").birthday(FinnishIdNumber::birthday).get().getYear(), is(2011));
+        }
+        assertThat(FinnishIdNumber.status(forId("270274G885N")), is(ParseResult.BAD_FORMAT));
+        assertThat(FinnishIdNumber.status(forId("270274-885G")), is(ParseResult.BAD_FORMAT));
+    }
+
+    @Test
+    public void status_IsReportedWithoutException() {
+        assertThat(FinnishIdNumber.status(forId(VALID_FEMALE_ID)), is(ParseResult.OK));
+        assertThat(FinnishIdNumber.status(forId("270274-885P")), is(ParseResult.BAD_CHECKSUM));
+        assertThat(FinnishIdNumber.status(forId("300274-885N")), is(ParseResult.BAD_DATE));
+        assertThat(FinnishIdNumber.status(forId("2702")), is(ParseResult.BAD_FORMAT));
+    }
+
+    @Test
+    public void shortToken_HasEmptyGender() {
+        assertThat(FinnishIdNumber.gender(forId("2702")), is(empty()));
+    }
+
 }
@@ -1,5 +1,6 @@
 package no.kantega.id.ie;
 
+import no.kantega.id.api.ParseResult;
 import org.junit.Test;
 
 import java.util.Locale;
@@ -46,4 +47,25 @@ public class PersonalPublicServiceNumberTest {
         forId(VALID_PPSN, FRANCE);
     }
 
+    @Test
+    public void statusIsReportedWithoutException() {
+        assertThat(PersonalPublicServiceNumber.status(forId(VALID_PPSN)), is(ParseResult.OK));
+        assertThat(PersonalPublicServiceNumber.status(forId(INVALID_PPSN)), is(ParseResult.BAD_CHECKSUM));
+        assertThat(PersonalPublicServiceNumber.status(forId("2A34567T")), is(ParseResult.BAD_FORMAT));
+    }
+
+    @Test
+    public void parseFoldsCaseOfLetters() {
+        assertThat(PersonalPublicServiceNumber.parse("1234567tw"), is(PersonalPublicServiceNumber.parse(VALID_PPSN)));
+        assertThat(PersonalPublicServiceNumber.parse("1234567tW"), is(PersonalPublicServiceNumber.parse(VALID_PPSN)));
+        assertThat(PersonalPublicServiceNumber.parse("1234567Fa"), is(PersonalPublicServiceNumber.parse("1234567FA")));
+    }
+
+    @Test
+    public void lettersThatAreNoControlCharacters_HaveBadChecksum() {
+        assertThat(ParseResult.status(PersonalPublicServiceNumber.parse("1234567X")), is(ParseResult.BAD_CHECKSUM));
+        assertThat(ParseResult.status(PersonalPublicServiceNumber.parse("1234567\u00C6")), is(ParseResult.BAD_FORMAT));
+        assertThat(ParseResult.status(PersonalPublicServiceNumber.parse("1234567T1")), is(ParseResult.BAD_FORMAT));
+    }
+
 }
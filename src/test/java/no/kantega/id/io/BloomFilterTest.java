@@ -0,0 +1,87 @@
+package no.kantega.id.io;
+
+import no.kantega.id.scheme.CompactId;
+import no.kantega.id.scheme.Scheme;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ReadOnlyBufferException;
+import java.nio.file.Path;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class BloomFilterTest {
+
+    private static final int IDS = 10000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void addedIdsAreContainedAndOthersMostlyRejected() {
+        BloomFilter filter = BloomFilter.create(IDS, 0.01);
+        for (int i = 0; i < IDS; i++) {
+            filter.put(danish(i));
+        }
+        for (int i = 0; i < IDS; i++) {
+            assertThat(filter.mightContain(danish(i)), is(true));
+        }
+        int falsePositives = 0;
+        for (int i = IDS; i < 2 * IDS; i++) {
+            falsePositives += filter.mightContain(danish(i)) ? 1 : 0;
+        }
+        assertThat("False positives: " + falsePositives, falsePositives < IDS / 50, is(true));
+    }
+
+    @Test
+    public void allSpellingsOfAnIdAreContained() {
+        BloomFilter hyphenated = BloomFilter.create(100, 0.001), plain = BloomFilter.create(100, 0.001);
+        assertThat(hyphenated.put(Scheme.ICELAND, "120174-3399"), is(true));
+        assertThat(plain.put(Scheme.ICELAND, "1201743399"), is(true));
+        assertThat(hyphenated.mightContain(Scheme.ICELAND, "1201743399"), is(true));
+        assertThat(plain.mightContain(Scheme.ICELAND, "120174-3399"), is(true));
+        assertThat(plain.mightContain(CompactId.encode(Scheme.ICELAND, "120174-3399")), is(true));
+    }
+
+    @Test
+    public void filterIsSizedByProbability() {
+        BloomFilter filter = BloomFilter.create(1000, 0.01);
+        assertThat(filter.bitSize(), is(9600L));
+        assertThat(filter.hashFunctions(), is(7));
+    }
+
+    @Test
+    public void savedFilterIsShared() throws IOException {
+        BloomFilter filter = BloomFilter.create(100, 0.001);
+        assertThat(filter.put(Scheme.NORWAY, "13020955966"), is(true));
+        assertThat(filter.put(Scheme.NORWAY, "00000000000"), is(false));
+        Path file = folder.newFile().toPath();
+        filter.save(file);
+
+        BloomFilter opened = BloomFilter.open(file);
+        assertThat(opened.bitSize(), is(filter.bitSize()));
+        assertThat(opened.hashFunctions(), is(filter.hashFunctions()));
+        assertThat(opened.mightContain(Scheme.NORWAY, "13020955966"), is(true));
+        assertThat(opened.mightContain(Scheme.NORWAY, "49068244349"), is(false));
+        assertThat(opened.mightContain(Scheme.NORWAY, "1302095596a"), is(false));
+    }
+
+    @Test(expected = ReadOnlyBufferException.class)
+    public void savedFilterIsReadOnly() throws IOException {
+        Path file = folder.newFile().toPath();
+        BloomFilter.create(100, 0.01).save(file);
+        BloomFilter.open(file).put(CompactId.encode(Scheme.NORWAY, "13020955966"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void probabilityMustBeBelowOne() {
+        BloomFilter.create(100, 1);
+    }
+
+    private static long danish(int serial) {
+        return CompactId.encode(Scheme.DENMARK, String.format("0101%02d%04d", 30 + serial / 10000, serial % 10000));
+    }
+}
@@ -0,0 +1,82 @@
+package no.kantega.id.io;
+
+import no.kantega.id.api.ParseResult;
+import no.kantega.id.no.NorwegianIdNumber;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class MappedFileValidatorTest {
+
+    private static final String[] TOKENS = {"13020955966", "00000000000", "1302095596a", "49068244349", "32130955966"};
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void linesAreCountedByStatus() throws IOException {
+        Path file = write("13020955966\n00000000000\r\n\n  1302095596a \n49068244349");
+        ValidationReport report = new MappedFileValidator(NorwegianIdNumber::parse).validate(file);
+        assertThat(report.lines(), is(4L));
+        assertThat(report.valid(), is(2L));
+        assertThat(report.invalid(), is(2L));
+        assertThat(report.count(ParseResult.BAD_FORMAT), is(1L));
+        assertThat(report.count(ParseResult.BAD_DATE), is(1L));
+        assertThat(report.invalidOffsets(), is(new long[]{12, 26}));
+    }
+
+    @Test
+    public void chunksAreSplitAtLineBoundaries() throws IOException {
+        StringBuilder content = new StringBuilder();
+        List<Long> invalidOffsets = new ArrayList<>();
+        long valid = 0;
+        for (int i = 0; i < 1000; i++) {
+            String token = TOKENS[i % TOKENS.length];
+            if (NorwegianIdNumber.valid(NorwegianIdNumber.forId(token))) {
+                valid++;
+            } else {
+                invalidOffsets.add((long) content.length());
+            }
+            content.append(token).append(i % 7 == 0 ? "\r\n" : "\n");
+        }
+        Path file = write(content.toString());
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int chunkSize : new int[]{1, 5, 12, 13, 100, 4096}) {
+                ValidationReport report = new MappedFileValidator(NorwegianIdNumber::parse, pool, chunkSize)
+                    .validate(file);
+                assertThat(report.lines(), is(1000L));
+                assertThat(report.valid(), is(valid));
+                long[] offsets = report.invalidOffsets();
+                assertThat(offsets.length, is(invalidOffsets.size()));
+                for (int i = 0; i < offsets.length; i++) {
+                    assertThat(offsets[i], is(invalidOffsets.get(i)));
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void emptyFileHasNoLines() throws IOException {
+        assertThat(new MappedFileValidator(NorwegianIdNumber::parse).validate(write("")).lines(), is(0L));
+    }
+
+    private Path write(String content) throws IOException {
+        Path file = folder.newFile().toPath();
+        Files.write(file, content.getBytes(StandardCharsets.US_ASCII));
+        return file;
+    }
+}
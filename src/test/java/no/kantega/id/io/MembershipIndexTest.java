@@ -0,0 +1,102 @@
+package no.kantega.id.io;
+
+import no.kantega.id.no.NorwegianIdNumber;
+import no.kantega.id.scheme.Scheme;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class MembershipIndexTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void indexContainsExactlyTheWrittenIds() throws IOException {
+        List<String> tokens = new ArrayList<>();
+        for (String resource : new String[]{"/no/female1900.txt", "/no/male1900.txt", "/no/female2000.txt"}) {
+            tokens.addAll(read(resource));
+        }
+        List<String> indexed = new ArrayList<>(), absent = new ArrayList<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            (i % 3 == 0 ? absent : indexed).add(tokens.get(i));
+        }
+        Path file = folder.newFile().toPath();
+        int size = MembershipIndex.write(Scheme.NORWAY, indexed, file);
+
+        MembershipIndex index = MembershipIndex.open(file);
+        assertThat(index.getScheme(), is(Scheme.NORWAY));
+        assertThat(index.size(), is(size));
+        for (String token : indexed) {
+            assertThat(token, index.contains(token), is(true));
+        }
+        for (String token : absent) {
+            assertThat(token, index.contains(token), is(indexed.contains(token)));
+        }
+        assertThat(index.contains("1302095596a"), is(false));
+    }
+
+    @Test
+    public void invalidAndDuplicateTokensAreSkipped() throws IOException {
+        Path file = folder.newFile().toPath();
+        int size = MembershipIndex.write(Scheme.NORWAY,
+            Arrays.asList("13020955966", "13020955966", "00000000000", "1302095596a", "49068244349"), file);
+        assertThat(size, is(2));
+        MembershipIndex index = MembershipIndex.open(file);
+        assertThat(index.contains("13020955966"), is(true));
+        assertThat(index.contains("49068244349"), is(true));
+        assertThat(index.contains("00000000000"), is(false));
+        assertThat(NorwegianIdNumber.forId("11515505468").isValid(), is(true));
+        assertThat(index.contains("11515505468"), is(false));
+    }
+
+    @Test
+    public void allSpellingsOfAnIdAreTheSameMember() throws IOException {
+        Path file = folder.newFile().toPath();
+        int size = MembershipIndex.write(Scheme.ICELAND, Arrays.asList("120174-3399", "1201743399"), file);
+        assertThat(size, is(1));
+        MembershipIndex index = MembershipIndex.open(file);
+        assertThat(index.contains("120174-3399"), is(true));
+        assertThat(index.contains("1201743399"), is(true));
+
+        Path other = folder.newFile().toPath();
+        MembershipIndex.write(Scheme.ICELAND, Collections.singletonList("1201743399"), other);
+        assertThat(MembershipIndex.open(other).contains("120174-3399"), is(true));
+    }
+
+    @Test
+    public void emptyIndexContainsNothing() throws IOException {
+        Path file = folder.newFile().toPath();
+        MembershipIndex.write(Scheme.DENMARK, Collections.<String>emptyList(), file);
+        assertThat(MembershipIndex.open(file).contains("0204850011"), is(false));
+    }
+
+    @Test(expected = IOException.class)
+    public void otherFilesAreRejected() throws IOException {
+        Path file = folder.newFile().toPath();
+        Files.write(file, "not an index at all, really not".getBytes(StandardCharsets.US_ASCII));
+        MembershipIndex.open(file);
+    }
+
+    private static List<String> read(String resource) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+            MembershipIndexTest.class.getResourceAsStream(resource), StandardCharsets.UTF_8))) {
+            return reader.lines().map(String::trim).filter(line -> !line.isEmpty()).collect(toList());
+        }
+    }
+}
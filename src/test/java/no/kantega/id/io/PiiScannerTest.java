@@ -0,0 +1,101 @@
+package no.kantega.id.io;
+
+import no.kantega.id.scheme.Scheme;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class PiiScannerTest {
+
+    private static final String TEXT = "Kari: 13020955966, Sven (720620-1381) og Matti 270274-885N.\n"
+                                       + "PPSN 1234567TW; ugyldig 13020955967, for lang 1302095596612345, "
+                                       + "tegn -13020955966+ og æøå 1234567T";
+
+    private static final byte[] BYTES = TEXT.getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void findsValidIdsOfAllSchemesWithOffsets() throws IOException {
+        List<String> found = new ArrayList<>();
+        PiiScanner scanner = new PiiScanner(collect(found));
+
+        assertThat(scanner.scan(new ByteArrayInputStream(BYTES)), is((long) BYTES.length));
+        assertThat(found, is(Arrays.asList(
+            "13020955966@" + offset("13020955966") + ":NORWAY",
+            "720620-1381@" + offset("720620-1381") + ":SWEDEN",
+            "270274-885N@" + offset("270274-885N") + ":FINLAND",
+            "1234567TW@" + offset("1234567TW") + ":IRELAND",
+            "13020955966@" + (offset("-13020955966+") + 1) + ":NORWAY",
+            "1234567T@" + offset(TEXT.lastIndexOf("1234567T")) + ":IRELAND")));
+    }
+
+    @Test
+    public void findsIdsSplitBetweenChunks() {
+        List<String> whole = new ArrayList<>(), split = new ArrayList<>();
+        PiiScanner scanner = new PiiScanner(collect(whole));
+        scanner.feed(BYTES, 0, BYTES.length);
+        scanner.finish();
+
+        scanner = new PiiScanner(collect(split));
+        for (int i = 0; i < BYTES.length; i++) {
+            scanner.feed(BYTES, i, 1);
+        }
+        scanner.finish();
+
+        assertThat(split, is(whole));
+    }
+
+    @Test
+    public void reportsOnlyGivenSchemes() {
+        List<String> found = new ArrayList<>();
+        PiiScanner scanner = new PiiScanner(collect(found), EnumSet.of(Scheme.IRELAND));
+        scanner.feed(BYTES, 0, BYTES.length);
+        scanner.finish();
+
+        assertThat(found.size(), is(2));
+    }
+
+    @Test
+    public void findsIdsJoinedToOtherTextBySigns() {
+        byte[] bytes = "fnr-13020955966 user:13020955966-x 13020955966-13020955966 id-720620-1381"
+            .getBytes(StandardCharsets.US_ASCII);
+        List<String> found = new ArrayList<>();
+        PiiScanner scanner = new PiiScanner((offset, length, scheme) ->
+            found.add(new String(bytes, (int) offset, length, StandardCharsets.US_ASCII) + "@" + offset + ":" + scheme));
+        for (int i = 0; i < bytes.length; i++) {
+            scanner.feed(bytes, i, 1);
+        }
+        scanner.finish();
+
+        assertThat(found, is(Arrays.asList(
+            "13020955966@4:NORWAY",
+            "13020955966@21:NORWAY",
+            "13020955966@35:NORWAY",
+            "13020955966@47:NORWAY",
+            "720620-1381@62:SWEDEN")));
+    }
+
+    private static PiiScanner.Handler collect(List<String> found) {
+        return (offset, length, scheme) ->
+            found.add(new String(BYTES, (int) offset, length, StandardCharsets.UTF_8) + "@" + offset + ":" + scheme);
+    }
+
+    private static int offset(String token) {
+        return offset(TEXT.indexOf(token));
+    }
+
+    /**
+     * Converts an index of the text into a byte offset of its UTF-8 encoding.
+     */
+    private static int offset(int index) {
+        return TEXT.substring(0, index).getBytes(StandardCharsets.UTF_8).length;
+    }
+}
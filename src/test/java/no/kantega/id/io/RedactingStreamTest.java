@@ -0,0 +1,107 @@
+package no.kantega.id.io;
+
+import no.kantega.id.scheme.Scheme;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class RedactingStreamTest {
+
+    private static final String TEXT = "Kari: 13020955966, Sven (19720620-1381) og Matti 270274-885N.\n"
+                                       + "PPSN 1234567TW; ugyldig 13020955967, for lang 1302095596612345, æøå 13020955966";
+
+    private static final String REDACTED = "Kari: 130209*****, Sven (19720620-****) og Matti 270274-****.\n"
+                                           + "PPSN *********; ugyldig 13020955967, for lang 1302095596612345, æøå 130209*****";
+
+    @Test
+    public void streamMasksValidIdsButBirthdays() throws IOException {
+        byte[] bytes = TEXT.getBytes(StandardCharsets.UTF_8);
+        assertThat(copy(new RedactingInputStream(new ByteArrayInputStream(bytes))), is(REDACTED));
+    }
+
+    @Test
+    public void streamMasksIdsSplitBetweenReads() throws IOException {
+        byte[] bytes = TEXT.getBytes(StandardCharsets.UTF_8);
+        InputStream trickle = new ByteArrayInputStream(bytes) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 1));
+            }
+        };
+        InputStream in = new RedactingInputStream(trickle);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) != -1) {
+            out.write(b);
+        }
+        assertThat(new String(out.toByteArray(), StandardCharsets.UTF_8), is(REDACTED));
+    }
+
+    @Test
+    public void readerMasksValidIdsButBirthdays() throws IOException {
+        Reader in = new RedactingReader(new StringReader(TEXT));
+        StringBuilder out = new StringBuilder();
+        char[] chars = new char[7];
+        int read;
+        while ((read = in.read(chars)) != -1) {
+            out.append(chars, 0, read);
+        }
+        assertThat(out.toString(), is(REDACTED));
+    }
+
+    @Test
+    public void onlyGivenSchemesAreMasked() throws IOException {
+        Reader in = new RedactingReader(new StringReader(TEXT), EnumSet.of(Scheme.IRELAND));
+        StringBuilder out = new StringBuilder();
+        int c;
+        while ((c = in.read()) != -1) {
+            out.append((char) c);
+        }
+        assertThat(out.toString(), is(TEXT.replace("1234567TW", "*********")));
+    }
+
+    @Test
+    public void idsJoinedToOtherTextBySignsAreMasked() throws IOException {
+        String text = "fnr-13020955966 user:13020955966-x 13020955966-13020955966 id-720620-1381";
+        String redacted = "fnr-130209***** user:130209*****-x 130209*****-130209***** id-720620-****";
+        assertThat(copy(new RedactingInputStream(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)))),
+            is(redacted));
+        Reader in = new RedactingReader(new StringReader(text));
+        StringBuilder out = new StringBuilder();
+        int c;
+        while ((c = in.read()) != -1) {
+            out.append((char) c);
+        }
+        assertThat(out.toString(), is(redacted));
+    }
+
+    @Test
+    public void skippedTextIsRedactedLikeReadText() throws IOException {
+        InputStream in = new RedactingInputStream(new ByteArrayInputStream(TEXT.getBytes(StandardCharsets.UTF_8)));
+        assertThat(in.skip(6), is(6L));
+        assertThat(copy(in), is(REDACTED.substring(6)));
+        Reader reader = new RedactingReader(new StringReader(TEXT));
+        assertThat(reader.skip(12), is(12L));
+        assertThat((char) reader.read(), is('*'));
+    }
+
+    private static String copy(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] bytes = new byte[5];
+        int read;
+        while ((read = in.read(bytes)) != -1) {
+            out.write(bytes, 0, read);
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -1,13 +1,16 @@
 package no.kantega.id.is;
 
+import no.kantega.id.api.ParseResult;
 import org.hamcrest.CoreMatchers;
 import org.junit.Test;
 
 import java.time.LocalDate;
+import java.util.Optional;
 
 import static java.util.Locale.FRANCE;
 import static no.kantega.id.is.IcelandishIdNumber.LOCALE_ICELAND;
 import static no.kantega.id.is.IcelandishIdNumber.forId;
+import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
@@ -75,5 +78,36 @@ public class IcelandishIdNumberTest {
             CoreMatchers.is(LocalDate.of(1974, 01, 12)));
     }
 
+    @Test
+    public void statusIsReportedWithoutException() {
+        assertThat(IcelandishIdNumber.status(forId(VALID_ICE_IDNUMBER)), is(ParseResult.OK));
+        assertThat(IcelandishIdNumber.status(forId(INVALID_CHECK_DIGIT)), is(ParseResult.BAD_CHECKSUM));
+        assertThat(IcelandishIdNumber.status(forId(INVALID_BIRTHDAY)), is(ParseResult.BAD_DATE));
+        assertThat(IcelandishIdNumber.status(forId(WRONG_NUMBER_OF_DIGITS)), is(ParseResult.BAD_FORMAT));
+    }
+
+    @Test
+    public void malformedTokenHasEmptyBirthday() {
+        assertThat(IcelandishIdNumber.birthday(forId("12a174-3399")), is(Optional.empty()));
+        assertThat(IcelandishIdNumber.birthday(forId(WRONG_NUMBER_OF_DIGITS)), is(Optional.empty()));
+    }
+
+    @Test
+    public void checkDigitElevenIsWrittenAsZero() {
+        assertTrue(forId("010170-0609").isValid(IcelandishIdNumber::valid));
+    }
+
+    @Test
+    public void companyKennitalaIsValidWithoutBirthday() {
+        assertTrue(forId("430174-3399").isValid(IcelandishIdNumber::valid));
+        assertThat(IcelandishIdNumber.birthday(forId("430174-3399")), is(Optional.empty()));
+    }
+
+    @Test
+    public void typeIsClassifiedByDay() {
+        assertThat(IcelandishIdNumber.type(forId(VALID_ICE_IDNUMBER)), is(Optional.of(IcelandishIdNumber.Type.PERSON)));
+        assertThat(IcelandishIdNumber.type(forId("430174-3399")), is(Optional.of(IcelandishIdNumber.Type.COMPANY)));
+        assertThat(IcelandishIdNumber.type(forId(WRONG_NUMBER_OF_DIGITS)), is(Optional.empty()));
+    }
+
 }
-    
\ No newline at end of file
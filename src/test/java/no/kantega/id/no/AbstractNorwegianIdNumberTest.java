@@ -31,6 +31,7 @@ public abstract class AbstractNorwegianIdNumberTest {
     @Test
     public void testGender() throws Exception {
         assertThat(norwegianIdNumber.gender().get(), is(getExpectedGender()));
+        assertThat(NorwegianIdNumber.genderCode(norwegianIdNumber.getIdToken()), is((byte) getExpectedGender().ordinal()));
     }
 
     protected abstract Gender getExpectedGender();
@@ -43,6 +44,7 @@ public abstract class AbstractNorwegianIdNumberTest {
         assertThat(birthday.getYear() % 100, is(Integer.parseInt(norwegianIdNumber.getIdToken().substring(4, 6))));
         assertThat(birthday.getYear() >= getExpectedMinimumYear(), is(true));
         assertThat(birthday.getYear() < getExpectedMaximumYear(), is(true));
+        assertThat(NorwegianIdNumber.birthdayEpochDay(norwegianIdNumber.getIdToken()), is((int) birthday.toEpochDay()));
     }
 
     protected abstract int getExpectedMinimumYear();
@@ -1,9 +1,14 @@
 package no.kantega.id.no;
 
+import no.kantega.id.api.DecodedBatch;
+import no.kantega.id.api.Gender;
+import no.kantega.id.api.IdNumber;
+import no.kantega.id.api.ParseResult;
 import org.junit.Test;
 
 import static no.kantega.id.no.NorwegianIdNumber.forId;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
 
 public class SpecialNumberTest {
@@ -13,6 +18,27 @@ public class SpecialNumberTest {
         assertThat(forId("00000000000").isValid(), is(false));
     }
 
+    @Test
+    public void testMalformedNumber() throws Exception {
+        for (String token : new String[]{"1302095596", "130209559660", "1302095596a", "13020 55966"}) {
+            NorwegianIdNumber malformed = forId(token);
+            assertThat(malformed.isValid(), is(false));
+            assertThat(malformed.type().isPresent(), is(false));
+            assertThat(malformed.gender().isPresent(), is(false));
+            assertThat(malformed.birthday().isPresent(), is(false));
+        }
+    }
+
+    @Test
+    public void testInterpretationOfInstanceMatchesPlainIdNumber() throws Exception {
+        NorwegianIdNumber idNumber = forId("13020955966");
+        IdNumber plain = IdNumber.forId("13020955966");
+        assertThat(idNumber.isValid(), is(plain.isValid(NorwegianIdNumber::valid)));
+        assertThat(idNumber.gender(), is(plain.gender(NorwegianIdNumber::gender)));
+        assertThat(idNumber.birthday(), is(plain.birthday(NorwegianIdNumber::birthday)));
+        assertThat(idNumber.type(), is(NorwegianIdNumber.type(plain)));
+    }
+
     @Test
     public void testDNumber() throws Exception {
         NorwegianIdNumber dNumber = forId("49068244349");
@@ -29,6 +55,26 @@ public class SpecialNumberTest {
         assertEqualInformation(hNumber, forId("11115505485"));
     }
 
+    @Test
+    public void testDecodedBatch() throws Exception {
+        String[] tokens = {"49068244349", "11515505468", "13020955966", "1302095596a", "72010100000", "01530100000"};
+        DecodedBatch batch = NorwegianIdNumber.decode(tokens, new DecodedBatch(tokens.length));
+        for (int i = 0; i < tokens.length; i++) {
+            NorwegianIdNumber idNumber = forId(tokens[i]);
+            assertThat(batch.status()[i], is(NorwegianIdNumber.status(idNumber)));
+            assertThat(Gender.values()[batch.gender()[i]], is(idNumber.gender().orElse(Gender.UNKNOWN)));
+            assertThat(batch.birthday()[i], is(idNumber.birthday()
+                .map(birthday -> (int) birthday.toEpochDay())
+                .orElse(ParseResult.NO_BIRTHDAY)));
+        }
+        assertThat(batch.detail()[0], is((byte) NorwegianIdNumber.Type.DNUMBER.ordinal()));
+        assertThat(batch.detail()[1], is((byte) NorwegianIdNumber.Type.HNUMBER.ordinal()));
+        assertThat(batch.status()[4], is(ParseResult.BAD_DATE));
+        assertThat(batch.detail()[4], is((byte) NorwegianIdNumber.Type.DNUMBER.ordinal()));
+        assertThat(batch.status()[5], is(ParseResult.BAD_DATE));
+        assertThat(batch.detail()[5], is((byte) NorwegianIdNumber.Type.HNUMBER.ordinal()));
+    }
+
     private static void assertEqualInformation(NorwegianIdNumber original, NorwegianIdNumber other) {
         assertThat(original.birthday(), is(other.birthday()));
         assertThat(original.gender(), is(other.gender()));
@@ -42,4 +88,21 @@ public class SpecialNumberTest {
         assertThat(hNumber.gender().isPresent(), is(false));
         assertThat(hNumber.birthday().isPresent(), is(false));
     }
+
+    @Test
+    public void testStatus() throws Exception {
+        assertThat(NorwegianIdNumber.status(forId("13020955966")), is(ParseResult.OK));
+        assertThat(NorwegianIdNumber.status(forId("13020955967")), is(ParseResult.BAD_CHECKSUM));
+        assertThat(NorwegianIdNumber.status(forId("31020955966")), is(ParseResult.BAD_DATE));
+        assertThat(NorwegianIdNumber.status(forId("1302095596x")), is(ParseResult.BAD_FORMAT));
+    }
+
+    @Test
+    public void testInterpretationIsShared() throws Exception {
+        NorwegianIdNumber first = forId("13020955966"), second = forId("13020955966");
+        assertThat(first.type(), sameInstance(second.type()));
+        assertThat(NorwegianIdNumber.gender(first), sameInstance(NorwegianIdNumber.gender(second)));
+        assertThat(NorwegianIdNumber.birthday(first), sameInstance(NorwegianIdNumber.birthday(second)));
+        assertThat(forId("84075010582").type(), sameInstance(forId("84075010582").type()));
+    }
 }
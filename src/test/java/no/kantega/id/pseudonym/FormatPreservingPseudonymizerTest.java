@@ -0,0 +1,131 @@
+package no.kantega.id.pseudonym;
+
+import no.kantega.id.api.Dates;
+import no.kantega.id.api.ParseResult;
+import no.kantega.id.pseudonym.FormatPreservingPseudonymizer.Keep;
+import no.kantega.id.scheme.Scheme;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static java.util.stream.Collectors.toList;
+import static no.kantega.id.scheme.Scheme.DENMARK;
+import static no.kantega.id.scheme.Scheme.FINLAND;
+import static no.kantega.id.scheme.Scheme.ICELAND;
+import static no.kantega.id.scheme.Scheme.IRELAND;
+import static no.kantega.id.scheme.Scheme.NORWAY;
+import static no.kantega.id.scheme.Scheme.SWEDEN;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class FormatPreservingPseudonymizerTest {
+
+    private static final byte[] KEY = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    @Test
+    public void pseudonymsOfAllResourcesAreValidAndReversible() throws IOException {
+        assertPseudonyms(NORWAY, "/no/female1800.txt", "/no/male1900.txt", "/no/male2000.txt");
+        assertPseudonyms(DENMARK, "/dk/female1800.txt", "/dk/male1900modulus11.txt", "/dk/male2000.txt");
+        assertPseudonyms(FINLAND, "/fi/generated_valid_numbers.txt");
+        assertPseudonyms(ICELAND, "/is/valid_is_numbers.txt");
+        assertPseudonyms(IRELAND, "/ie/generated_valid_numbers.txt");
+        assertPseudonyms(SWEDEN, "/se/valid_numbers.txt");
+    }
+
+    @Test
+    public void specialNumbersKeepTheirType() {
+        FormatPreservingPseudonymizer pseudonymizer = new FormatPreservingPseudonymizer(NORWAY, KEY);
+        assertThat(pseudonymizer.pseudonymize("49068244349").charAt(0) >= '4', is(true));
+        assertThat(pseudonymizer.pseudonymize("11515505468").charAt(2) >= '4', is(true));
+        assertThat(new FormatPreservingPseudonymizer(SWEDEN, KEY).pseudonymize("701063-2391").charAt(4) >= '6',
+            is(true));
+    }
+
+    @Test
+    public void danishPseudonymsKeepTheCenturyDigit() throws IOException {
+        FormatPreservingPseudonymizer pseudonymizer = new FormatPreservingPseudonymizer(DENMARK, KEY);
+        for (String token : read("/dk/male2000.txt")) {
+            if (ParseResult.isValid(DENMARK.parse(token))) {
+                assertThat(token, pseudonymizer.pseudonymize(token).charAt(6), is(token.charAt(6)));
+            }
+        }
+    }
+
+    @Test
+    public void pseudonymsDependOnTheKey() {
+        byte[] other = KEY.clone();
+        other[0]++;
+        assertThat(new FormatPreservingPseudonymizer(NORWAY, KEY).pseudonymize("13020955966"),
+            is(not(new FormatPreservingPseudonymizer(NORWAY, other).pseudonymize("13020955966"))));
+    }
+
+    @Test
+    public void batchYieldsNullForInvalidTokens() {
+        FormatPreservingPseudonymizer pseudonymizer = new FormatPreservingPseudonymizer(NORWAY, KEY);
+        String[] pseudonyms = pseudonymizer.pseudonymize(new String[]{"13020955966", "13020955967"}, new String[2]);
+        assertThat(pseudonyms[1], is(nullValue()));
+        assertThat(pseudonymizer.reveal(pseudonyms, new String[2])[0], is("13020955966"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidTokensAreRejected() {
+        new FormatPreservingPseudonymizer(NORWAY, KEY).pseudonymize("13020955967");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void keysMustHaveSixteenBytes() {
+        new FormatPreservingPseudonymizer(NORWAY, new byte[8]);
+    }
+
+    private static void assertPseudonyms(Scheme scheme, String... resources) throws IOException {
+        FormatPreservingPseudonymizer plain = new FormatPreservingPseudonymizer(scheme, KEY);
+        FormatPreservingPseudonymizer keeping = new FormatPreservingPseudonymizer(scheme, KEY, Keep.BIRTHDAY,
+            Keep.GENDER);
+        for (String resource : resources) {
+            List<String> tokens = read(resource);
+            Set<String> pseudonyms = new HashSet<>();
+            for (String token : tokens) {
+                long result = scheme.parse(token);
+                if (!ParseResult.isValid(result)) {
+                    continue;
+                }
+                String pseudonym = plain.pseudonymize(token);
+                long pseudonymResult = scheme.parse(pseudonym);
+                assertThat(pseudonym, ParseResult.isValid(pseudonymResult), is(true));
+                assertThat(pseudonym, century(pseudonymResult), is(century(result)));
+                assertThat(pseudonym, pseudonym.length(), is(token.length()));
+                assertThat(pseudonym, plain.reveal(pseudonym), is(token));
+                pseudonyms.add(pseudonym);
+
+                String kept = keeping.pseudonymize(token);
+                long keptResult = scheme.parse(kept);
+                assertThat(kept, ParseResult.isValid(keptResult), is(true));
+                assertThat(kept, ParseResult.birthday(keptResult), is(ParseResult.birthday(result)));
+                assertThat(kept, ParseResult.gender(keptResult), is(ParseResult.gender(result)));
+                assertThat(kept, keeping.reveal(kept), is(token));
+            }
+            assertThat(resource, pseudonyms.size(), is((int) tokens.stream().distinct()
+                .filter(token -> ParseResult.isValid(scheme.parse(token))).count()));
+        }
+    }
+
+    private static int century(long result) {
+        int birthday = ParseResult.birthday(result);
+        return birthday == ParseResult.NO_BIRTHDAY ? -1 : Dates.year(birthday) / 100;
+    }
+
+    private static List<String> read(String resource) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+            FormatPreservingPseudonymizerTest.class.getResourceAsStream(resource), StandardCharsets.UTF_8))) {
+            return reader.lines().map(String::trim).filter(line -> !line.isEmpty()).collect(toList());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package no.kantega.id.pseudonym;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static no.kantega.id.scheme.Scheme.ICELAND;
+import static no.kantega.id.scheme.Scheme.IRELAND;
+import static no.kantega.id.scheme.Scheme.NORWAY;
+import static no.kantega.id.scheme.Scheme.SWEDEN;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class HmacPseudonymizerTest {
+
+    private static final byte[] KEY = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    @Test
+    public void pseudonymIsHmacOfCanonicalToken() {
+        assertThat(new HmacPseudonymizer(NORWAY, KEY).pseudonymize(" 13020955966\n"),
+            is("fa43aef3caa0c1f8a35db54225bca9a1e377e7be83570d057d8a6c7ba1d08407"));
+    }
+
+    @Test
+    public void spellingsOfAnIdShareThePseudonym() {
+        HmacPseudonymizer swedish = new HmacPseudonymizer(SWEDEN, KEY);
+        String expected = "48515871b5b71297b1c390ea1356e00b5b73e23e168c06ff94e157b06c7b8ac0";
+        assertThat(swedish.pseudonymize("194502281654"), is(expected));
+        assertThat(swedish.pseudonymize("19450228-1654"), is(expected));
+        assertThat(swedish.pseudonymize("450228-1654"), is(expected));
+
+        HmacPseudonymizer icelandic = new HmacPseudonymizer(ICELAND, KEY);
+        assertThat(icelandic.pseudonymize("120174-3399"), is(icelandic.pseudonymize("1201743399")));
+        assertThat(icelandic.pseudonymize("120174-3399"),
+            is("b81c9400f6b418490efd8d625726159c01b82302a37a624c3c6fb7ddb9d1098e"));
+
+        HmacPseudonymizer irish = new HmacPseudonymizer(IRELAND, KEY, "HmacSHA256", 1);
+        assertThat(irish.pseudonymize("1234567tw"), is(irish.pseudonymize("1234567TW")));
+        assertThat(irish.pseudonymize("1234567TW"),
+            is("fde5e7b1068321775b32fc8fd6de17275aca542df574ae8722486a40d1f875bb"));
+    }
+
+    @Test
+    public void canonicalTokensAreExposed() {
+        assertThat(HmacPseudonymizer.canonical(SWEDEN, "450228+1654"), is("184502281654"));
+        assertThat(HmacPseudonymizer.canonical(ICELAND, "120174-3399"), is("1201743399"));
+        assertThat(HmacPseudonymizer.canonical(NORWAY, "13020955967"), is(nullValue()));
+    }
+
+    @Test
+    public void batchYieldsNullForInvalidTokens() {
+        String[] pseudonyms = new HmacPseudonymizer(NORWAY, KEY)
+            .pseudonymize(new String[]{"13020955966", "13020955967", null}, new String[3]);
+        assertThat(Arrays.asList(pseudonyms), is(Arrays.asList(
+            "fa43aef3caa0c1f8a35db54225bca9a1e377e7be83570d057d8a6c7ba1d08407", null, null)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidTokensAreRejected() {
+        new HmacPseudonymizer(NORWAY, KEY).pseudonymize("13020955967");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownAlgorithmsAreRejected() {
+        new HmacPseudonymizer(NORWAY, KEY, "HmacUnknown", 16);
+    }
+}
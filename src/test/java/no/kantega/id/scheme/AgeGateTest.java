@@ -0,0 +1,76 @@
+package no.kantega.id.scheme;
+
+import no.kantega.id.api.DecodedBatch;
+import no.kantega.id.fin.FinnishIdNumber;
+import no.kantega.id.no.NorwegianIdNumber;
+import org.junit.Test;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import static no.kantega.id.scheme.Scheme.FINLAND;
+import static no.kantega.id.scheme.Scheme.NORWAY;
+import static no.kantega.id.scheme.Scheme.SWEDEN;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class AgeGateTest {
+
+    @Test
+    public void ageIsReachedOnBirthday() {
+        assertThat(AgeGate.atLeast(NORWAY, 17, LocalDate.of(2026, 2, 12)).test("13020955966"), is(false));
+        assertThat(AgeGate.atLeast(NORWAY, 17, LocalDate.of(2026, 2, 13)).test("13020955966"), is(true));
+        assertThat(AgeGate.atLeast(NORWAY, 0, LocalDate.of(2009, 2, 13)).test("13020955966"), is(true));
+        assertThat(AgeGate.atLeast(NORWAY, 0, LocalDate.of(2009, 2, 12)).test("13020955966"), is(false));
+    }
+
+    @Test
+    public void leapDayBirthdaysReachAgeOnFirstOfMarch() {
+        AgeGate beforeMarch = AgeGate.atLeast(FINLAND, 18, LocalDate.of(2026, 2, 28));
+        AgeGate march = AgeGate.atLeast(FINLAND, 18, LocalDate.of(2026, 3, 1));
+        assertThat(FinnishIdNumber.valid(FinnishIdNumber.forId("290208A123B")), is(true));
+        assertThat(beforeMarch.test("290208A123B"), is(false));
+        assertThat(march.test("290208A123B"), is(true));
+        assertThat(march.cutoff(), is((int) LocalDate.of(2008, 3, 1).toEpochDay()));
+    }
+
+    @Test
+    public void invalidAndUndatedNumbersAreRejected() {
+        AgeGate gate = AgeGate.atLeast(NORWAY, 16, LocalDate.of(2026, 1, 1));
+        assertThat(gate.test("13020955967"), is(false));
+        assertThat(gate.test("1302095596a"), is(false));
+        assertThat(gate.test("84075010582"), is(false));
+        assertThat(gate.test(NorwegianIdNumber.forId("13020955966")), is(true));
+    }
+
+    @Test
+    public void swedishCenturyIsResolvedAtReferenceDate() {
+        assertThat(AgeGate.atLeast(SWEDEN, 4, LocalDate.of(1995, 1, 1)).test("900304-4428"), is(true));
+        assertThat(AgeGate.atLeast(SWEDEN, 5, LocalDate.of(1995, 1, 1)).test("900304-4428"), is(false));
+        assertThat(AgeGate.atLeast(SWEDEN, 36, LocalDate.of(2026, 3, 4)).test("900304-4428"), is(true));
+    }
+
+    @Test
+    public void clockIsReadOnce() {
+        Clock clock = Clock.fixed(LocalDate.of(2026, 3, 1).atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        AgeGate gate = AgeGate.atLeast(NORWAY, 67, clock);
+        assertThat(gate.getReferenceDate(), is(LocalDate.of(2026, 3, 1)));
+        assertThat(gate.cutoff(), is((int) LocalDate.of(1959, 3, 1).toEpochDay()));
+    }
+
+    @Test
+    public void decodedColumnsAreAccepted() {
+        DecodedBatch batch = NorwegianIdNumber.decode(new CharSequence[]{"13020955966", "13020955967"},
+            new DecodedBatch(2));
+        AgeGate gate = AgeGate.atLeast(NORWAY, 16, LocalDate.of(2026, 1, 1));
+        assertThat(gate.accepts(batch.status()[0], batch.birthday()[0]), is(true));
+        assertThat(gate.accepts(batch.status()[1], batch.birthday()[1]), is(false));
+        assertThat(gate.accepts(NORWAY.parse("13020955966")), is(true));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeAgeIsRejected() {
+        AgeGate.atLeast(NORWAY, -1, LocalDate.of(2026, 1, 1));
+    }
+}
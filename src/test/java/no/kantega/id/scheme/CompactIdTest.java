@@ -0,0 +1,159 @@
+package no.kantega.id.scheme;
+
+import no.kantega.id.api.Gender;
+import no.kantega.id.api.IdNumber;
+import no.kantega.id.api.ParseResult;
+import no.kantega.id.dk.DanishIdNumber;
+import no.kantega.id.ie.PersonalPublicServiceNumber;
+import no.kantega.id.is.IcelandishIdNumber;
+import no.kantega.id.no.NorwegianIdNumber;
+import no.kantega.id.se.SwedishIdNumber;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static java.util.stream.Collectors.toList;
+import static no.kantega.id.scheme.Scheme.DENMARK;
+import static no.kantega.id.scheme.Scheme.FINLAND;
+import static no.kantega.id.scheme.Scheme.ICELAND;
+import static no.kantega.id.scheme.Scheme.IRELAND;
+import static no.kantega.id.scheme.Scheme.NORWAY;
+import static no.kantega.id.scheme.Scheme.SWEDEN;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class CompactIdTest {
+
+    @Test
+    public void tokensOfAllResourcesRoundTrip() throws IOException {
+        assertRoundTrip(NORWAY, "/no/female1800.txt", "/no/female1900.txt", "/no/female2000.txt",
+            "/no/male1800.txt", "/no/male1900.txt", "/no/male2000.txt");
+        assertRoundTrip(DENMARK, "/dk/female1800.txt", "/dk/male1900modulus11.txt", "/dk/male2000.txt",
+            "/dk/invalid_numbers.txt");
+        assertRoundTrip(FINLAND, "/fi/generated_valid_numbers.txt", "/fi/invalid_numbers.txt");
+        assertRoundTrip(ICELAND, "/is/valid_is_numbers.txt", "/is/invalid_is_numbers.txt");
+        assertRoundTrip(IRELAND, "/ie/generated_valid_numbers.txt", "/ie/invalid_numbers.txt");
+        assertRoundTrip(SWEDEN, "/se/valid_numbers.txt", "/se/invalid_numbers.txt");
+    }
+
+    @Test
+    public void tokensAreRestoredInCanonicalForm() {
+        assertThat(CompactId.token(CompactId.encode(SWEDEN, "19450228-1654")), is("194502281654"));
+        assertThat(CompactId.token(CompactId.encode(SWEDEN, "450228+1654")), is("184502281654"));
+        assertThat(CompactId.token(CompactId.encode(IRELAND, "1234567tw")), is("1234567TW"));
+        assertThat(CompactId.token(CompactId.encode(ICELAND, "120174-3399")), is("120174-3399"));
+        assertThat(CompactId.token(CompactId.encode(ICELAND, "1201743399")), is("1201743399"));
+        assertThat(CompactId.token(CompactId.encode(FINLAND, "010290+3581")), is("010290+3581"));
+        assertThat(CompactId.token(CompactId.encode(NORWAY, "01010100000")), is("01010100000"));
+    }
+
+    @Test
+    public void canonicalEncodingIgnoresIcelandicHyphen() {
+        long hyphenated = CompactId.encode(ICELAND, "120174-3399"), plain = CompactId.encode(ICELAND, "1201743399");
+        assertThat(CompactId.canonical(hyphenated), is(plain));
+        assertThat(CompactId.canonical(plain), is(plain));
+        assertThat(CompactId.canonical(CompactId.NONE), is(CompactId.NONE));
+    }
+
+    @Test
+    public void canonicalEncodingOfTokenIgnoresSurroundingWhitespace() {
+        long plain = CompactId.encode(ICELAND, "1201743399");
+        assertThat(CompactId.canonical(ICELAND, " 120174-3399\t"), is(plain));
+        assertThat(CompactId.canonical(ICELAND, "1201743399"), is(plain));
+        assertThat(CompactId.canonical(NORWAY, " 1302095596a "), is(CompactId.NONE));
+    }
+
+    @Test
+    public void malformedTokensAreNotEncoded() {
+        assertThat(CompactId.encode(NORWAY, "1302095596a"), is(CompactId.NONE));
+        assertThat(CompactId.status(CompactId.NONE), is(ParseResult.BAD_FORMAT));
+        assertThat(CompactId.isValid(CompactId.NONE), is(false));
+        assertThat(CompactId.gender(CompactId.NONE), is(Gender.UNKNOWN));
+        assertThat(CompactId.birthday(CompactId.NONE), is(ParseResult.NO_BIRTHDAY));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void noneHasNoScheme() {
+        CompactId.scheme(CompactId.NONE);
+    }
+
+    @Test
+    public void birthdaysOutOfRangeAreReadFromToken() {
+        long compact = CompactId.encode(SWEDEN, "170001011234");
+        assertThat(CompactId.optionalBirthday(compact), is(Optional.of(LocalDate.of(1700, 1, 1))));
+    }
+
+    @Test
+    public void encodingsAreOrderedBySchemeAndToken() {
+        long first = CompactId.encode(NORWAY, "13020955966"), second = CompactId.encode(NORWAY, "49068244349");
+        long danish = CompactId.encode(DENMARK, "0204850011"), irish = CompactId.encode(IRELAND, "1234567T");
+        assertThat(Long.compareUnsigned(first, second) < 0, is(true));
+        assertThat(Long.compareUnsigned(second, danish) < 0, is(true));
+        assertThat(Long.compareUnsigned(danish, irish) < 0, is(true));
+    }
+
+    @Test
+    public void localIdNumbersAreEqualByEncoding() {
+        assertThat(IcelandishIdNumber.forId("120174-3399"), is(IcelandishIdNumber.forId("1201743399")));
+        assertThat(IcelandishIdNumber.forId("120174-3399").hashCode(),
+            is(IcelandishIdNumber.forId("1201743399").hashCode()));
+        assertThat(PersonalPublicServiceNumber.forId("1234567tw"), is(PersonalPublicServiceNumber.forId("1234567TW")));
+        assertThat(SwedishIdNumber.forId("450228-1654"), is(SwedishIdNumber.forId("194502281654")));
+        assertThat(SwedishIdNumber.forId("450228+1654").equals(SwedishIdNumber.forId("194502281654")), is(false));
+        assertThat(NorwegianIdNumber.forId("1302095596a"), is(NorwegianIdNumber.forId("1302095596a")));
+        assertThat(NorwegianIdNumber.forId("1302095596a").equals(NorwegianIdNumber.forId("1302095596b")), is(false));
+
+        Set<IdNumber> ids = new HashSet<>(Arrays.asList(IcelandishIdNumber.forId("120174-3399"),
+            IcelandishIdNumber.forId("1201743399"), IcelandishIdNumber.forId(" 1201743399")));
+        assertThat(ids.size(), is(1));
+    }
+
+    @Test
+    public void localIdNumbersAreOrderedByEncoding() {
+        List<IdNumber> ids = new ArrayList<>(Arrays.asList(PersonalPublicServiceNumber.forId("1234567T"),
+            NorwegianIdNumber.forId("1302095596a"), NorwegianIdNumber.forId("49068244349"),
+            IdNumber.forId("123"), DanishIdNumber.forId("0204850011"), NorwegianIdNumber.forId("13020955966")));
+        Collections.sort(ids);
+        assertThat(ids.stream().map(IdNumber::getIdToken).collect(toList()), is(Arrays.asList("13020955966",
+            "49068244349", "0204850011", "1234567T", "123", "1302095596a")));
+    }
+
+    private static void assertRoundTrip(Scheme scheme, String... resources) throws IOException {
+        for (String resource : resources) {
+            for (String token : read(resource)) {
+                long result = scheme.parse(token), compact = CompactId.encode(scheme, token);
+                if (ParseResult.status(result) == ParseResult.BAD_FORMAT) {
+                    assertThat(token, compact, is(CompactId.NONE));
+                    continue;
+                }
+                String restored = CompactId.token(compact);
+                assertThat(token, CompactId.scheme(compact), is(scheme));
+                assertThat(token, CompactId.encode(scheme, restored), is(compact));
+                if (scheme != SWEDEN) {
+                    assertThat(restored, is(token.toUpperCase()));
+                }
+                assertThat(token, CompactId.status(compact), is(ParseResult.status(result)));
+                assertThat(token, CompactId.gender(compact), is(ParseResult.gender(result)));
+                assertThat(token, CompactId.birthday(compact), is(ParseResult.birthday(result)));
+            }
+        }
+    }
+
+    private static List<String> read(String resource) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+            CompactIdTest.class.getResourceAsStream(resource), StandardCharsets.UTF_8))) {
+            return reader.lines().map(String::trim).filter(line -> !line.isEmpty()).collect(toList());
+        }
+    }
+}
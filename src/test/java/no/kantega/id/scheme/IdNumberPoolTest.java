@@ -0,0 +1,70 @@
+package no.kantega.id.scheme;
+
+import no.kantega.id.api.IdNumber;
+import no.kantega.id.is.IcelandishIdNumber;
+import no.kantega.id.no.NorwegianIdNumber;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class IdNumberPoolTest {
+
+    @Test
+    public void occurrencesOfAnIdShareOneInstance() {
+        IdNumberPool<NorwegianIdNumber> pool = new IdNumberPool<>(Scheme.NORWAY, NorwegianIdNumber::forId, 16);
+        NorwegianIdNumber first = pool.intern("13020955966");
+        assertThat(pool.intern(" 13020955966 "), is(sameInstance(first)));
+        assertThat(pool.intern(new StringBuilder("13020955966")), is(sameInstance(first)));
+        assertThat(first.getIdToken(), is("13020955966"));
+        assertThat(pool.intern("49068244349"), is(not(sameInstance(first))));
+    }
+
+    @Test
+    public void spellingsOfAnIdShareOneInstance() {
+        IdNumberPool<IdNumber> pool = IdNumberPool.of(Scheme.ICELAND, 16);
+        IdNumber first = pool.intern("120174-3399");
+        assertThat(first, is(sameInstance(pool.intern("1201743399"))));
+        assertThat(first.getClass() == IcelandishIdNumber.class, is(true));
+    }
+
+    @Test
+    public void spellingsReplacingEachOtherShareOneInstance() {
+        IdNumberPool<IdNumber> pool = IdNumberPool.of(Scheme.ICELAND, 1);
+        IdNumber first = pool.intern("120174-3399");
+        assertThat(pool.intern("1201743399"), is(sameInstance(first)));
+        assertThat(pool.intern(new StringBuilder("120174-3399")), is(sameInstance(first)));
+        assertThat(pool.intern("120174-3399"), is(sameInstance(first)));
+    }
+
+    @Test
+    public void malformedTokensAreNotPooled() {
+        IdNumberPool<IdNumber> pool = IdNumberPool.of(Scheme.NORWAY, 16);
+        IdNumber malformed = pool.intern("1302095596a");
+        assertThat(malformed.getIdToken(), is("1302095596a"));
+        assertThat(pool.intern("1302095596a"), is(not(sameInstance(malformed))));
+    }
+
+    @Test
+    public void poolIsBounded() {
+        IdNumberPool<IdNumber> pool = IdNumberPool.of(Scheme.NORWAY, 1);
+        IdNumber first = pool.intern("13020955966");
+        pool.intern("49068244349");
+        assertThat(pool.intern("13020955966"), is(not(sameInstance(first))));
+        assertThat(pool.intern("13020955966"), is(first));
+    }
+
+    @Test
+    public void cacheCapacityIsRoundedUpToPowerOfTwo() {
+        assertThat(new CompactIdCache<String>(1).capacity(), is(1));
+        assertThat(new CompactIdCache<String>(3).capacity(), is(4));
+        assertThat(new CompactIdCache<String>(1024).capacity(), is(1024));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void cacheCapacityMustBePositive() {
+        new CompactIdCache<String>(0);
+    }
+}
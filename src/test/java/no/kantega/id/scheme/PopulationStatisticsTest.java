@@ -0,0 +1,113 @@
+package no.kantega.id.scheme;
+
+import no.kantega.id.api.DecodedBatch;
+import no.kantega.id.api.Gender;
+import no.kantega.id.api.ParseResult;
+import no.kantega.id.no.NorwegianIdNumber;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+import static no.kantega.id.scheme.Scheme.NORWAY;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class PopulationStatisticsTest {
+
+    private static final LocalDate REFERENCE = LocalDate.of(2026, 1, 1);
+
+    @Test
+    public void tokensAreCountedByStatusGenderAndType() {
+        PopulationStatistics statistics = Arrays.asList("13020955966", "13020955967", "1302095596a", "32020955966",
+            "49068244349", "11515505468", "84075010582")
+            .stream().collect(PopulationStatistics.collector(NORWAY, REFERENCE, 18, 67));
+
+        assertThat(statistics.total(), is(7L));
+        assertThat(statistics.valid(), is(4L));
+        assertThat(statistics.invalid(), is(3L));
+        assertThat(statistics.count(ParseResult.BAD_CHECKSUM), is(1L));
+        assertThat(statistics.count(ParseResult.BAD_FORMAT), is(1L));
+        assertThat(statistics.count(ParseResult.BAD_DATE), is(1L));
+        assertThat(statistics.count(Gender.MALE) + statistics.count(Gender.FEMALE), is(3L));
+        assertThat(statistics.count(Gender.UNKNOWN), is(1L));
+        assertThat(statistics.detailCount(NorwegianIdNumber.Type.FNUMBER.ordinal()), is(1L));
+        assertThat(statistics.detailCount(NorwegianIdNumber.Type.DNUMBER.ordinal()), is(1L));
+        assertThat(statistics.detailCount(NorwegianIdNumber.Type.HNUMBER.ordinal()), is(1L));
+        assertThat(statistics.detailCount(NorwegianIdNumber.Type.FHNUMBER.ordinal()), is(1L));
+        assertThat(statistics.birthYearCount(2009), is(1L));
+    }
+
+    @Test
+    public void birthdaysAreCountedByAgeBand() {
+        PopulationStatistics statistics = new PopulationStatistics(REFERENCE, 18, 67);
+        statistics.add(NORWAY.parse("13020955966"));
+        statistics.add(NORWAY.parse("84075010582"));
+        for (String date : new String[]{"010158", "020159"}) {
+            for (char[] token = (date + "00000").toCharArray(); ; token[8]++) {
+                if (NorwegianIdNumber.fillControl(token)) {
+                    statistics.add(NORWAY.parse(new String(token)));
+                    break;
+                }
+            }
+        }
+        assertThat(statistics.ageBandCount(0), is(1L));
+        assertThat(statistics.ageBandCount(1), is(1L));
+        assertThat(statistics.ageBandCount(2), is(1L));
+        assertThat(statistics.valid(), is(4L));
+        assertThat(statistics.ageBandCount(3), is(0L));
+        assertThat(statistics.birthYearCount(1958), is(1L));
+        assertThat(statistics.birthYearCount(1959), is(1L));
+    }
+
+    @Test
+    public void parallelCollectionMatchesSequentialAndBatches() throws IOException {
+        List<String> tokens = new ArrayList<>();
+        for (String resource : new String[]{"/no/female1800.txt", "/no/female1900.txt", "/no/female2000.txt",
+            "/no/male1800.txt", "/no/male1900.txt", "/no/male2000.txt"}) {
+            tokens.addAll(read(resource));
+        }
+        tokens.add("13020955967");
+        Clock clock = Clock.fixed(REFERENCE.atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        PopulationStatistics sequential = tokens.stream().collect(PopulationStatistics.collector(NORWAY, clock, 18, 67));
+        PopulationStatistics parallel = tokens.parallelStream()
+            .collect(PopulationStatistics.collector(NORWAY, REFERENCE, 18, 67));
+        PopulationStatistics batched = new PopulationStatistics(REFERENCE, 18, 67);
+        batched.add(NorwegianIdNumber.decode(tokens, new DecodedBatch(tokens.size())));
+
+        assertThat(sequential.total(), is((long) tokens.size()));
+        assertThat(sequential.invalid(), is(1L));
+        assertThat(parallel.toString(), is(sequential.toString()));
+        assertThat(batched.toString(), is(sequential.toString()));
+        for (int year = 1800; year < 2100; year++) {
+            assertThat(parallel.birthYearCount(year), is(sequential.birthYearCount(year)));
+            assertThat(batched.birthYearCount(year), is(sequential.birthYearCount(year)));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void statisticsWithOtherAgeLimitsAreNotMerged() {
+        new PopulationStatistics(REFERENCE, 18).merge(new PopulationStatistics(REFERENCE, 18, 67));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void descendingAgeLimitsAreRejected() {
+        PopulationStatistics.collector(NORWAY, REFERENCE, 67, 18);
+    }
+
+    private static List<String> read(String resource) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+            PopulationStatisticsTest.class.getResourceAsStream(resource), StandardCharsets.UTF_8))) {
+            return reader.lines().map(String::trim).filter(line -> !line.isEmpty()).collect(toList());
+        }
+    }
+}
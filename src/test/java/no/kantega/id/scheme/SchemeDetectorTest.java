@@ -0,0 +1,83 @@
+package no.kantega.id.scheme;
+
+import no.kantega.id.api.IdNumber;
+import no.kantega.id.no.NorwegianIdNumber;
+import org.junit.Test;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import static no.kantega.id.scheme.Scheme.DENMARK;
+import static no.kantega.id.scheme.Scheme.FINLAND;
+import static no.kantega.id.scheme.Scheme.ICELAND;
+import static no.kantega.id.scheme.Scheme.IRELAND;
+import static no.kantega.id.scheme.Scheme.NORWAY;
+import static no.kantega.id.scheme.Scheme.SWEDEN;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class SchemeDetectorTest {
+
+    @Test
+    public void tokensAreDetectedByTheirScheme() {
+        assertThat(schemes("13020955966"), is(EnumSet.of(NORWAY)));
+        assertThat(schemes("0204850011"), is(EnumSet.of(DENMARK)));
+        assertThat(schemes("270274-885N"), is(EnumSet.of(FINLAND)));
+        assertThat(schemes("120174-3399"), is(EnumSet.of(ICELAND)));
+        assertThat(schemes("1234567TW"), is(EnumSet.of(IRELAND)));
+        assertThat(schemes("1234567tw"), is(EnumSet.of(IRELAND)));
+        assertThat(schemes("194502281654"), is(EnumSet.of(SWEDEN)));
+        assertThat(schemes("19450228-1654"), is(EnumSet.of(SWEDEN)));
+    }
+
+    @Test
+    public void tokensCanBeValidByMoreThanOneScheme() {
+        assertThat(schemes("0101010139"), is(EnumSet.of(DENMARK)));
+        for (String token : new String[]{"0101010139", "1201743399", "8112289874"}) {
+            for (Scheme scheme : Scheme.values()) {
+                assertThat(token + " by " + scheme, schemes(token).contains(scheme),
+                    is(scheme.valid(IdNumber.forId(token))));
+            }
+        }
+    }
+
+    @Test
+    public void candidatesFollowTheLayout() {
+        assertThat(Scheme.setOf(SchemeDetector.candidates("1234567890")), is(EnumSet.of(DENMARK, SWEDEN, ICELAND)));
+        assertThat(Scheme.setOf(SchemeDetector.candidates("123456-7890")), is(EnumSet.of(FINLAND, SWEDEN, ICELAND)));
+        assertThat(Scheme.setOf(SchemeDetector.candidates("123456+7890")), is(EnumSet.of(FINLAND, SWEDEN)));
+        assertThat(Scheme.setOf(SchemeDetector.candidates("123456A789X")), is(EnumSet.of(FINLAND)));
+        assertThat(Scheme.setOf(SchemeDetector.candidates("1234567A1")), is(EnumSet.noneOf(Scheme.class)));
+        assertThat(SchemeDetector.candidates("1234567"), is(0));
+        assertThat(SchemeDetector.candidates("12345678901234"), is(0));
+    }
+
+    @Test
+    public void detectionMatchesEveryScheme() {
+        String[] tokens = {"13020955966", "00000000000", "0204850011", "3002801234", "270274-885N", "270274-885P",
+            "120174-3399", "120174-3379", "1234567T", "7654321TW", "900304-4428", "9003044428", "900304+4428"};
+        for (String token : tokens) {
+            int valid = 0;
+            for (Scheme scheme : Scheme.values()) {
+                valid |= scheme.valid(IdNumber.forId(token)) ? scheme.bit() : 0;
+            }
+            assertThat(token, SchemeDetector.detect(token), is(valid));
+        }
+    }
+
+    @Test
+    public void schemesCreateTheirIdNumbers() {
+        assertThat(NORWAY.forId("13020955966"), instanceOf(NorwegianIdNumber.class));
+        assertThat(Scheme.forCountry("ie"), is(IRELAND));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownCountryHasNoScheme() {
+        Scheme.forCountry("FR");
+    }
+
+    private static Set<Scheme> schemes(String token) {
+        return SchemeDetector.schemes(IdNumber.forId(token));
+    }
+}
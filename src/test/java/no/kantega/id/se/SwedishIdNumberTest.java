@@ -1,9 +1,15 @@
 package no.kantega.id.se;
 
+import no.kantega.id.api.ParseResult;
 import org.junit.Test;
 
+import java.time.Clock;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
 import java.util.Locale;
+import java.util.Optional;
 
 import static no.kantega.id.api.Gender.FEMALE;
 import static no.kantega.id.api.Gender.MALE;
@@ -12,6 +18,7 @@ import static no.kantega.id.se.SwedishIdNumber.SWEDEN;
 import static no.kantega.id.se.SwedishIdNumber.forId;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 
 public class SwedishIdNumberTest {
 
@@ -73,4 +80,78 @@ public class SwedishIdNumberTest {
     public void mustReturnTheRightAge() {
         assertEquals("Wrong age", AGE, forId(SWEDISH_MAN).age(SwedishIdNumber::birthday).get().getYears());
     }
+
+    @Test
+    public void statusIsReportedWithoutException() {
+        assertEquals(ParseResult.OK, SwedishIdNumber.status(forId(VALID_SWEDISH_ID)));
+        assertEquals(ParseResult.BAD_CHECKSUM, SwedishIdNumber.status(forId("900304-4429")));
+        assertEquals(ParseResult.BAD_DATE, SwedishIdNumber.status(forId("900231-4428")));
+        assertEquals(ParseResult.BAD_FORMAT, SwedishIdNumber.status(forId("900304a4428")));
+    }
+
+    @Test
+    public void invalidDateHasEmptyBirthday() {
+        assertEquals(Optional.empty(), SwedishIdNumber.birthday(forId("900231-4428")));
+    }
+
+    @Test
+    public void parserResolvesCenturyRelativeToReferenceDate() {
+        SwedishIdNumber.Parser parser = SwedishIdNumber.parser(LocalDate.of(2014, 4, 3));
+        assertEquals(LocalDate.of(2014, 4, 2), parser.birthday(forId("140402-1238")).get());
+        assertEquals(LocalDate.of(1914, 4, 4), parser.birthday(forId("140404-1236")).get());
+        assertEquals(LocalDate.of(1999, 1, 1), parser.birthday(forId("9901011230")).get());
+    }
+
+    @Test
+    public void parserConvertsToCanonicalForm() {
+        SwedishIdNumber.Parser parser = SwedishIdNumber.parser(LocalDate.of(2014, 4, 3));
+        assertEquals(201404021238L, parser.canonical("140402-1238"));
+        assertEquals(191404041236L, parser.canonical("1404041236"));
+        assertEquals(190812316214L, parser.canonical("081231+6214"));
+        assertEquals(194502281654L, parser.canonical("19450228-1654"));
+        assertEquals(-1L, parser.canonical("14040-1238"));
+        assertEquals(-1L, parser.canonical("140402*1238"));
+        assertEquals(201404021239L, parser.canonical("140402-1239"));
+    }
+
+    @Test
+    public void parserMovesPlusSignToPreviousCentury() {
+        SwedishIdNumber.Parser parser = SwedishIdNumber.parser(LocalDate.of(2014, 4, 3));
+        assertEquals(LocalDate.of(2008, 12, 31), parser.birthday(forId("081231-6214")).get());
+        assertEquals(LocalDate.of(1908, 12, 31), parser.birthday(forId("081231+6214")).get());
+        assertEquals(LocalDate.of(1914, 4, 2), parser.birthday(forId("140402+1238")).get());
+    }
+
+    @Test
+    public void parserDoesNotResolveCenturyOfTwelveDigitNumbers() {
+        SwedishIdNumber.Parser parser = SwedishIdNumber.parser(LocalDate.of(2014, 4, 3));
+        assertEquals(LocalDate.of(1945, 2, 28), parser.birthday(forId("194502281654")).get());
+        assertEquals(LocalDate.of(1945, 2, 28), parser.birthday(forId("19450228-1654")).get());
+    }
+
+    @Test
+    public void parserReadsClockOnce() {
+        Clock clock = Clock.fixed(Instant.parse("2014-04-03T10:00:00Z"), ZoneOffset.UTC);
+        SwedishIdNumber.Parser parser = SwedishIdNumber.parser(clock);
+        assertEquals(LocalDate.of(1914, 4, 4), parser.birthday(forId("140404-1236")).get());
+        assertEquals(ParseResult.OK, parser.status(forId("140404-1236")));
+        assertEquals(MALE, parser.gender(forId("140404-1236")).get());
+    }
+
+    @Test
+    public void currentParserIsSharedAndFollowsTheSystemClock() {
+        SwedishIdNumber.Parser parser = SwedishIdNumber.parser();
+        assertSame(parser, SwedishIdNumber.parser());
+        String token = LocalDate.now().minusYears(100).format(DateTimeFormatter.ofPattern("yyMMdd")) + "-1234";
+        assertEquals(SwedishIdNumber.parser(LocalDate.now()).parse(token), SwedishIdNumber.parse(token));
+        assertEquals(SwedishIdNumber.parser(LocalDate.now()).canonical(token), SwedishIdNumber.canonical(token));
+    }
+
+    @Test
+    public void parserExtractsBirthdayAndGenderCodes() {
+        SwedishIdNumber.Parser parser = SwedishIdNumber.parser(LocalDate.of(2014, 4, 3));
+        assertEquals(LocalDate.of(1914, 4, 4).toEpochDay(), parser.birthdayEpochDay("140404-1236"));
+        assertEquals(ParseResult.NO_BIRTHDAY, parser.birthdayEpochDay("14040-1236"));
+        assertEquals(MALE.ordinal(), parser.genderCode("140404-1236"));
+    }
 }